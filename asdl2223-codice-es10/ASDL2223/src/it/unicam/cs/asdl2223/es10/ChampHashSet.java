@@ -0,0 +1,541 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+
+/**
+ * Insieme basato su un hash array mapped trie in forma CHAMP. Ogni livello consuma 5 bit
+ * dell'hash rimescolato; un nodo ha due bitmap, una per gli elementi memorizzati direttamente e
+ * una per i sottonodi, e un solo array con gli elementi all'inizio e i sottonodi in fondo. Gli
+ * elementi con lo stesso hash a 32 bit finiscono in un nodo di collisione.
+ *
+ * snapshot() costa O(1): la copia condivide tutti i nodi con l'originale. Ogni nodo ricorda il
+ * gettone di modifica dell'insieme che lo ha creato e viene modificato sul posto solo da quello
+ * (modalità transiente, che rende veloce la costruzione a blocchi); snapshot() assegna un gettone
+ * nuovo a entrambi gli insiemi, quindi i nodi condivisi da quel momento vengono copiati lungo il
+ * cammino, O(log32 n) nodi per modifica, e chi legge una copia non vede mai le modifiche
+ * dell'altra. Anche gli iteratori lavorano su una copia e non lanciano
+ * ConcurrentModificationException.
+ *
+ * Il cammino nel trie è dato dai bit dell'hash, quindi questa classe non usa una
+ * PrimaryHashFunction.
+ */
+public class ChampHashSet<E> implements Set<E> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private volatile Node root;
+    private volatile int size;
+    // i nodi con questo gettone appartengono solo a questo insieme e si possono modificare sul posto
+    private Object edit;
+    // impostato da add e remove dei nodi quando l'insieme cambia
+    private boolean modified;
+    private final HashMixer mixer;
+
+    public ChampHashSet() {
+        this.mixer = new Murmur3HashMixer();
+        this.edit = new Object();
+        this.root = new BitmapNode(edit, 0, 0, new Object[0]);
+        this.size = 0;
+    }
+
+    private ChampHashSet(ChampHashSet<E> source) {
+        this.mixer = source.mixer;
+        this.edit = new Object();
+        this.root = source.root;
+        this.size = source.size;
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    /**
+     * Restituisce in tempo costante una copia indipendente dell'insieme. La copia può essere
+     * passata ad altri thread e letta mentre questo insieme continua a essere modificato.
+     */
+    public ChampHashSet<E> snapshot() {
+        // da qui in poi i nodi attuali sono condivisi: nessuno dei due insiemi li modifica più
+        this.edit = new Object();
+        return new ChampHashSet<>(this);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return root.contains(element, hash(element), 0);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        modified = false;
+        Node newRoot = root.add(this, e, hash(e), 0);
+        if (!modified) {
+            return false;
+        }
+        root = newRoot;
+        size = size + 1;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        modified = false;
+        Node newRoot = root.remove(this, o, hash(o), 0);
+        if (!modified) {
+            return false;
+        }
+        root = newRoot;
+        size = size - 1;
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // come snapshot(): le modifiche successive copiano i nodi invece di cambiarli
+        this.edit = new Object();
+        return new Itr(root);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Node r = root;
+        int n = size;
+        if (a.length < n) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), n);
+        }
+        int i = 0;
+        for (Iterator<E> it = new Itr(r); it.hasNext();) {
+            a[i++] = (T) it.next();
+        }
+        if (a.length > n) {
+            a[n] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean changed = false;
+        for (E element : c) {
+            if (add(element)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean changed = false;
+        // l'iteratore lavora su una copia, quindi si può rimuovere mentre si scorre
+        for (E element : this) {
+            if (!c.contains(element) && remove(element)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean changed = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        this.edit = new Object();
+        this.root = new BitmapNode(edit, 0, 0, new Object[0]);
+        this.size = 0;
+    }
+
+    private static int mask(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * Crea il sottotrie che contiene due elementi a partire dal livello shift; se i due hash
+     * coincidono in tutti i bit il risultato è un nodo di collisione.
+     */
+    private static Node merge(Object edit, Object k1, int h1, Object k2, int h2, int shift) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(edit, h1, new Object[] { k1, k2 });
+        }
+        int m1 = mask(h1, shift);
+        int m2 = mask(h2, shift);
+        if (m1 != m2) {
+            Object[] content = m1 < m2 ? new Object[] { k1, k2 } : new Object[] { k2, k1 };
+            return new BitmapNode(edit, (1 << m1) | (1 << m2), 0, content);
+        }
+        return new BitmapNode(edit, 0, 1 << m1, new Object[] { merge(edit, k1, h1, k2, h2, shift + BITS) });
+    }
+
+    protected abstract static class Node {
+        protected final Object edit;
+
+        Node(Object edit) {
+            this.edit = edit;
+        }
+
+        abstract boolean contains(Object o, int hash, int shift);
+
+        abstract Node add(ChampHashSet<?> owner, Object o, int hash, int shift);
+
+        abstract Node remove(ChampHashSet<?> owner, Object o, int hash, int shift);
+
+        abstract int payloadArity();
+
+        abstract Object payload(int index);
+
+        abstract int nodeArity();
+
+        abstract Node node(int index);
+    }
+
+    protected static final class BitmapNode extends Node {
+        private int dataMap;
+        private int nodeMap;
+        // elementi in ordine di bit all'inizio, sottonodi in ordine di bit inverso in fondo
+        private Object[] content;
+
+        BitmapNode(Object edit, int dataMap, int nodeMap, Object[] content) {
+            super(edit);
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        boolean contains(Object o, int hash, int shift) {
+            int bit = 1 << mask(hash, shift);
+            if ((dataMap & bit) != 0) {
+                return content[dataIndex(bit)].equals(o);
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).contains(o, hash, shift + BITS);
+            }
+            return false;
+        }
+
+        @Override
+        Node add(ChampHashSet<?> owner, Object o, int hash, int shift) {
+            int bit = 1 << mask(hash, shift);
+            if ((dataMap & bit) != 0) {
+                Object existing = content[dataIndex(bit)];
+                if (existing.equals(o)) {
+                    return this;
+                }
+                owner.modified = true;
+                Node sub = merge(owner.edit, existing, owner.hash(existing), o, hash, shift + BITS);
+                return migrateDataToNode(owner.edit, bit, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = (Node) content[nodeIndex(bit)];
+                Node newSub = sub.add(owner, o, hash, shift + BITS);
+                return owner.modified ? setNode(owner.edit, bit, newSub) : this;
+            }
+            owner.modified = true;
+            return insertData(owner.edit, bit, o);
+        }
+
+        @Override
+        Node remove(ChampHashSet<?> owner, Object o, int hash, int shift) {
+            int bit = 1 << mask(hash, shift);
+            if ((dataMap & bit) != 0) {
+                if (!content[dataIndex(bit)].equals(o)) {
+                    return this;
+                }
+                owner.modified = true;
+                return removeData(owner.edit, bit);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = (Node) content[nodeIndex(bit)];
+                Node newSub = sub.remove(owner, o, hash, shift + BITS);
+                if (!owner.modified) {
+                    return this;
+                }
+                // forma canonica: un sottonodo rimasto con un solo elemento viene riassorbito
+                if (newSub.nodeArity() == 0 && newSub.payloadArity() == 1) {
+                    return migrateNodeToData(owner.edit, bit, newSub.payload(0));
+                }
+                return setNode(owner.edit, bit, newSub);
+            }
+            return this;
+        }
+
+        private Node setNode(Object edit, int bit, Node sub) {
+            int index = nodeIndex(bit);
+            if (content[index] == sub) {
+                return this;
+            }
+            if (this.edit == edit) {
+                content[index] = sub;
+                return this;
+            }
+            Object[] copy = content.clone();
+            copy[index] = sub;
+            return new BitmapNode(edit, dataMap, nodeMap, copy);
+        }
+
+        private Node insertData(Object edit, int bit, Object key) {
+            int index = dataIndex(bit);
+            Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            System.arraycopy(content, index, copy, index + 1, content.length - index);
+            return update(edit, dataMap | bit, nodeMap, copy);
+        }
+
+        private Node removeData(Object edit, int bit) {
+            int index = dataIndex(bit);
+            Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 1, copy, index, content.length - index - 1);
+            return update(edit, dataMap ^ bit, nodeMap, copy);
+        }
+
+        private Node migrateDataToNode(Object edit, int bit, Node sub) {
+            int oldIndex = dataIndex(bit);
+            // la lunghezza non cambia: ciò che sta tra i due indici scorre di una posizione
+            int newIndex = nodeIndex(bit);
+            Object[] copy = new Object[content.length];
+            System.arraycopy(content, 0, copy, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 1, copy, oldIndex, newIndex - oldIndex);
+            copy[newIndex] = sub;
+            System.arraycopy(content, newIndex + 1, copy, newIndex + 1, content.length - newIndex - 1);
+            return update(edit, dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        private Node migrateNodeToData(Object edit, int bit, Object key) {
+            int oldIndex = nodeIndex(bit);
+            int newIndex = dataIndex(bit);
+            Object[] copy = new Object[content.length];
+            System.arraycopy(content, 0, copy, 0, newIndex);
+            copy[newIndex] = key;
+            System.arraycopy(content, newIndex, copy, newIndex + 1, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, copy, oldIndex + 1, content.length - oldIndex - 1);
+            return update(edit, dataMap | bit, nodeMap ^ bit, copy);
+        }
+
+        private Node update(Object edit, int newDataMap, int newNodeMap, Object[] newContent) {
+            if (this.edit == edit) {
+                this.dataMap = newDataMap;
+                this.nodeMap = newNodeMap;
+                this.content = newContent;
+                return this;
+            }
+            return new BitmapNode(edit, newDataMap, newNodeMap, newContent);
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object payload(int index) {
+            return content[index];
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node node(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+    }
+
+    /**
+     * Elementi diversi con lo stesso hash a 32 bit, in fondo al trie.
+     */
+    protected static final class CollisionNode extends Node {
+        private final int hash;
+        private Object[] items;
+
+        CollisionNode(Object edit, int hash, Object[] items) {
+            super(edit);
+            this.hash = hash;
+            this.items = items;
+        }
+
+        @Override
+        boolean contains(Object o, int hash, int shift) {
+            if (hash == this.hash) {
+                for (Object item : items) {
+                    if (item.equals(o)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Node add(ChampHashSet<?> owner, Object o, int hash, int shift) {
+            if (contains(o, hash, shift)) {
+                return this;
+            }
+            owner.modified = true;
+            Object[] copy = Arrays.copyOf(items, items.length + 1);
+            copy[items.length] = o;
+            return update(owner.edit, copy);
+        }
+
+        @Override
+        Node remove(ChampHashSet<?> owner, Object o, int hash, int shift) {
+            if (hash != this.hash) {
+                return this;
+            }
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].equals(o)) {
+                    owner.modified = true;
+                    Object[] copy = new Object[items.length - 1];
+                    System.arraycopy(items, 0, copy, 0, i);
+                    System.arraycopy(items, i + 1, copy, i, items.length - i - 1);
+                    return update(owner.edit, copy);
+                }
+            }
+            return this;
+        }
+
+        private Node update(Object edit, Object[] newItems) {
+            if (this.edit == edit) {
+                this.items = newItems;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newItems);
+        }
+
+        @Override
+        int payloadArity() {
+            return items.length;
+        }
+
+        @Override
+        Object payload(int index) {
+            return items[index];
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Node node(int index) {
+            throw new IndexOutOfBoundsException("Collision nodes have no subnodes");
+        }
+    }
+
+    /**
+     * Scorre gli elementi di un nodo, poi i suoi sottonodi. La radice passata non viene più
+     * modificata, quindi l'iteratore non vede le modifiche successive alla sua creazione.
+     */
+    private class Itr implements Iterator<E> {
+        private final Deque<Node> pending;
+        private Node current;
+        private int currentIndex;
+
+        private Itr(Node root) {
+            pending = new ArrayDeque<>();
+            pending.push(root);
+            advance();
+        }
+
+        private void advance() {
+            while ((current == null || currentIndex >= current.payloadArity()) && !pending.isEmpty()) {
+                current = pending.pop();
+                currentIndex = 0;
+                for (int i = 0; i < current.nodeArity(); i++) {
+                    pending.push(current.node(i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null && currentIndex < current.payloadArity();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            E item = (E) current.payload(currentIndex++);
+            advance();
+            return item;
+        }
+    }
+
+    protected Node getRoot() {
+        return this.root;
+    }
+
+}
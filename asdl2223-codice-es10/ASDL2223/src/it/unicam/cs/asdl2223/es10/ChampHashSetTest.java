@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ChampHashSetTest {
+
+    @Test
+    void testAddContainsRemove() {
+        ChampHashSet<Integer> set = new ChampHashSet<>();
+        Set<Integer> expected = RandomSetOperations.check(set, 37, 50000, 4000);
+        RandomSetOperations.assertIteratesOnce(expected, set);
+    }
+
+    @Test
+    void testSnapshotsAreIsolated() {
+        ChampHashSet<Integer> set = new ChampHashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i);
+        }
+        ChampHashSet<Integer> snapshot = set.snapshot();
+        for (int i = 0; i < 10000; i += 2) {
+            set.remove(i);
+        }
+        for (int i = 10000; i < 12000; i++) {
+            set.add(i);
+        }
+        assertEquals(10000, snapshot.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(snapshot.contains(i));
+        }
+        assertFalse(snapshot.contains(10000));
+        assertEquals(7000, set.size());
+        // anche le modifiche alla copia non si vedono nell'originale
+        snapshot.add(-1);
+        assertFalse(set.contains(-1));
+        assertTrue(snapshot.contains(-1));
+    }
+
+    @Test
+    void testSnapshotReadersDoNotSeeWriter() throws InterruptedException {
+        ChampHashSet<Integer> set = new ChampHashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        ChampHashSet<Integer> snapshot = set.snapshot();
+        boolean[] consistent = { true };
+        Thread reader = new Thread(() -> {
+            for (int round = 0; round < 200; round++) {
+                int count = 0;
+                for (Integer i : snapshot) {
+                    if (i < 0 || i >= 1000) {
+                        consistent[0] = false;
+                    }
+                    count++;
+                }
+                if (count != 1000) {
+                    consistent[0] = false;
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 100000; i++) {
+            set.add(1000 + i);
+            set.remove(i % 1000);
+            set.add(i % 1000);
+        }
+        reader.join();
+        assertTrue(consistent[0]);
+    }
+
+    @Test
+    void testCollidingHashCodes() {
+        ChampHashSet<String> set = new ChampHashSet<>();
+        // stesso hashCode: i quattro elementi finiscono in un CollisionNode in fondo al trie
+        String[] colliding = { "AaAa", "AaBB", "BBAa", "BBBB" };
+        set.addAll(Arrays.asList(colliding));
+        assertFalse(set.add("AaBB"));
+        ChampHashSet<String> snapshot = set.snapshot();
+        assertTrue(set.remove("BBAa"));
+        assertTrue(set.remove("AaAa"));
+        assertTrue(set.remove("BBBB"));
+        assertEquals(1, set.size());
+        assertTrue(set.contains("AaBB"));
+        assertEquals(4, snapshot.size());
+        assertTrue(snapshot.containsAll(Arrays.asList(colliding)));
+    }
+
+    @Test
+    void testIteratorAllowsRemovalWhileIterating() {
+        ChampHashSet<Integer> set = new ChampHashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        // l'iteratore lavora su una versione immutabile: rimuovere e aggiungere non lo disturba
+        Set<Integer> visited = new HashSet<>();
+        for (Integer i : set) {
+            assertTrue(visited.add(i));
+            assertTrue(set.remove(i));
+            assertTrue(set.add(i + 1000));
+        }
+        assertEquals(1000, visited.size());
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i >= 1000, set.contains(i));
+        }
+    }
+
+}
@@ -0,0 +1,467 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Mappa a liste di collisione con la stessa catena di hashing di CollisionListResizableHashTable:
+ * l'hashCode della chiave viene rimescolato, memorizzato nel nodo e ridotto alla tabella dalla
+ * funzione primaria. put, putIfAbsent, computeIfAbsent e merge percorrono il bucket una sola
+ * volta: se la chiave manca il nuovo nodo va in testa alla lista, senza una seconda ricerca.
+ *
+ * Chiavi e valori non possono essere null, così get restituisce null solo per le chiavi assenti.
+ */
+public class CollisionListResizableHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final double LOAD_FACTOR = 0.75;
+    private int size;
+    private Node<K, V>[] table;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+    private int modCount;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    public CollisionListResizableHashMap(PrimaryHashFunction phf) {
+        this(phf, new Murmur3HashMixer(), 0);
+    }
+
+    /**
+     * Crea una mappa già abbastanza grande da contenere expectedSize chiavi senza ridimensionamenti.
+     */
+    public CollisionListResizableHashMap(PrimaryHashFunction phf, int expectedSize) {
+        this(phf, new Murmur3HashMixer(), expectedSize);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public CollisionListResizableHashMap(PrimaryHashFunction phf, HashMixer mixer, int expectedSize) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (mixer == null) {
+            throw new NullPointerException("Hash mixer cannot be null");
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        // ogni mappa usa un proprio seme, anche se riceve un'istanza condivisa
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = mixer;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && (int) (capacity * LOAD_FACTOR) < expectedSize) {
+            capacity *= 2;
+        }
+        this.table = (Node<K, V>[]) new Node[capacity];
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    private int hash(Object key) {
+        return mixer.mix(key.hashCode());
+    }
+
+    private int indexFor(int hash, int length) {
+        return phf.hash(hash, length);
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException("Value cannot be null");
+        }
+    }
+
+    private Node<K, V> findNode(Object key) {
+        int h = hash(key);
+        for (Node<K, V> node = table[indexFor(h, table.length)]; node != null; node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        checkKey(key);
+        return findNode(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        checkValue(value);
+        for (Node<K, V> bucket : table) {
+            for (Node<K, V> node = bucket; node != null; node = node.next) {
+                if (node.value.equals(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        checkKey(key);
+        Node<K, V> node = findNode(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        checkKey(key);
+        Node<K, V> node = findNode(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        checkKey(key);
+        checkValue(value);
+        int h = hash(key);
+        int index = indexFor(h, table.length);
+        for (Node<K, V> node = table[index]; node != null; node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                V old = node.value;
+                node.value = value;
+                return old;
+            }
+        }
+        linkFirst(index, key, value, h);
+        return null;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        checkKey(key);
+        checkValue(value);
+        int h = hash(key);
+        int index = indexFor(h, table.length);
+        for (Node<K, V> node = table[index]; node != null; node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                return node.value;
+            }
+        }
+        linkFirst(index, key, value, h);
+        return null;
+    }
+
+    /**
+     * Se la chiave manca calcola il valore e lo inserisce in testa al bucket già individuato. La
+     * funzione non deve modificare la mappa: in quel caso l'indice potrebbe non essere più valido
+     * e viene lanciata ConcurrentModificationException.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        checkKey(key);
+        if (mappingFunction == null) {
+            throw new NullPointerException("Mapping function cannot be null");
+        }
+        int h = hash(key);
+        int index = indexFor(h, table.length);
+        for (Node<K, V> node = table[index]; node != null; node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                return node.value;
+            }
+        }
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Map modified by the mapping function");
+        }
+        if (value == null) {
+            return null;
+        }
+        linkFirst(index, key, value, h);
+        return value;
+    }
+
+    /**
+     * Inserisce value se la chiave manca, altrimenti la sostituisce con il risultato di
+     * remappingFunction applicata al vecchio valore e a value; un risultato null rimuove la chiave.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        checkKey(key);
+        checkValue(value);
+        if (remappingFunction == null) {
+            throw new NullPointerException("Remapping function cannot be null");
+        }
+        int h = hash(key);
+        int index = indexFor(h, table.length);
+        Node<K, V> prev = null;
+        for (Node<K, V> node = table[index]; node != null; prev = node, node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                int expectedModCount = modCount;
+                V merged = remappingFunction.apply(node.value, value);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException("Map modified by the remapping function");
+                }
+                if (merged == null) {
+                    unlink(index, prev, node);
+                } else {
+                    node.value = merged;
+                }
+                return merged;
+            }
+        }
+        linkFirst(index, key, value, h);
+        return value;
+    }
+
+    private void linkFirst(int index, K key, V value, int h) {
+        table[index] = new Node<>(key, value, h, table[index]);
+        size++;
+        modCount++;
+        if (size > getCurrentThreshold() && table.length < MAXIMUM_CAPACITY) {
+            resize();
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void resize() {
+        Node<K, V>[] previous = table;
+        table = (Node<K, V>[]) new Node[previous.length * 2];
+        for (Node<K, V> bucket : previous) {
+            Node<K, V> node = bucket;
+            while (node != null) {
+                Node<K, V> next = node.next;
+                // l'hash memorizzato evita di richiamare hashCode durante il ridimensionamento
+                int index = indexFor(node.hash, table.length);
+                node.next = table[index];
+                table[index] = node;
+                node = next;
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkKey(key);
+        int h = hash(key);
+        int index = indexFor(h, table.length);
+        Node<K, V> prev = null;
+        for (Node<K, V> node = table[index]; node != null; prev = node, node = node.next) {
+            if (node.hash == h && node.key.equals(key)) {
+                unlink(index, prev, node);
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    private void removeNode(Node<K, V> target) {
+        int index = indexFor(target.hash, table.length);
+        Node<K, V> prev = null;
+        for (Node<K, V> node = table[index]; node != null; prev = node, node = node.next) {
+            if (node == target) {
+                unlink(index, prev, node);
+                return;
+            }
+        }
+    }
+
+    private void unlink(int index, Node<K, V> prev, Node<K, V> node) {
+        if (prev == null) {
+            table[index] = node.next;
+        } else {
+            prev.next = node.next;
+        }
+        size--;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void clear() {
+        this.table = (Node<K, V>[]) new Node[INITIAL_CAPACITY];
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    protected static final class Node<K, V> implements Map.Entry<K, V> {
+        protected final K key;
+
+        protected V value;
+
+        // hash rimescolato della chiave, confrontato prima di equals e riusato dai ridimensionamenti
+        protected final int hash;
+
+        protected Node<K, V> next;
+
+        Node(K key, V value, int hash, Node<K, V> next) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            checkValue(value);
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new Itr();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            if (e.getKey() == null) {
+                return false;
+            }
+            Node<K, V> node = findNode(e.getKey());
+            return node != null && node.value.equals(e.getValue());
+        }
+    }
+
+    private class Itr implements Iterator<Map.Entry<K, V>> {
+        private int numeroModificheAtteso;
+        private int currentIndex;
+        private Node<K, V> currentNode;
+        private Node<K, V> lastReturned;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentIndex = 0;
+            currentNode = findNextNode();
+        }
+
+        private Node<K, V> findNextNode() {
+            while (currentIndex < table.length) {
+                if (table[currentIndex] != null) {
+                    return table[currentIndex];
+                }
+                currentIndex++;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentNode != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            Node<K, V> temp = currentNode;
+            lastReturned = currentNode;
+            if (currentNode.next != null) {
+                currentNode = currentNode.next;
+            } else {
+                currentIndex++;
+                currentNode = findNextNode();
+            }
+            return temp;
+        }
+
+        /**
+         * Toglie l'ultima coppia restituita da next(). La tabella non viene ridimensionata, quindi
+         * il nodo successivo resta valido e l'iterazione prosegue; keySet, values ed entrySet
+         * rimuovono tramite questo metodo.
+         */
+        @Override
+        public void remove() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            removeNode(lastReturned);
+            lastReturned = null;
+            numeroModificheAtteso = modCount;
+        }
+    }
+
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
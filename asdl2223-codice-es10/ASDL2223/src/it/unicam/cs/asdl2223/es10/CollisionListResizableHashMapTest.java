@@ -0,0 +1,169 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CollisionListResizableHashMapTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAgainstHashMap() {
+        againstHashMap(new CollisionListResizableHashMap<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAgainstHashMap() {
+        againstHashMap(new CollisionListResizableHashMap<>(multiplicationHash));
+    }
+
+    private void againstHashMap(CollisionListResizableHashMap<Integer, Integer> map) {
+        Random random = new Random(41);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(4000);
+            int value = random.nextInt(10);
+            switch (random.nextInt(5)) {
+            case 0:
+                assertEquals(expected.put(key, value), map.put(key, value));
+                break;
+            case 1:
+                assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                break;
+            case 2:
+                assertEquals(expected.computeIfAbsent(key, k -> k % 7), map.computeIfAbsent(key, k -> k % 7));
+                break;
+            case 3:
+                // una somma oltre 20 restituisce null e rimuove la chiave
+                assertEquals(expected.merge(key, value, (a, b) -> a + b > 20 ? null : a + b),
+                        map.merge(key, value, (a, b) -> a + b > 20 ? null : a + b));
+                break;
+            default:
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < 4000; i++) {
+            assertEquals(expected.get(i), map.get(i));
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        CollisionListResizableHashMap<Integer, String> map = new CollisionListResizableHashMap<>(divisionHash);
+        for (int i = 0; i < 12; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(16, map.getTable().length);
+        map.put(12, "v12");
+        assertEquals(32, map.getTable().length);
+        for (int i = 0; i <= 12; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+        assertEquals(64, new CollisionListResizableHashMap<Integer, String>(divisionHash, 40).getTable().length);
+    }
+
+    @Test
+    void multiplicationHash_testComputeIfAbsentCallsFunctionOnce() {
+        CollisionListResizableHashMap<String, Integer> map = new CollisionListResizableHashMap<>(multiplicationHash);
+        int[] calls = new int[1];
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, map.computeIfAbsent("key", k -> {
+                calls[0]++;
+                return k.length() + 2;
+            }));
+        }
+        assertEquals(1, calls[0]);
+        assertNull(map.computeIfAbsent("other", k -> null));
+        assertFalse(map.containsKey("other"));
+    }
+
+    @Test
+    void divisionHash_testFunctionsMustNotModifyMap() {
+        CollisionListResizableHashMap<Integer, Integer> map = new CollisionListResizableHashMap<>(divisionHash);
+        map.put(1, 1);
+        assertThrows(ConcurrentModificationException.class, () -> map.computeIfAbsent(2, k -> map.put(3, 3)));
+        assertThrows(ConcurrentModificationException.class, () -> map.merge(1, 1, (a, b) -> map.remove(1)));
+    }
+
+    @Test
+    void multiplicationHash_testNullsAreRejected() {
+        CollisionListResizableHashMap<Integer, Integer> map = new CollisionListResizableHashMap<>(multiplicationHash);
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertThrows(NullPointerException.class, () -> map.get(null));
+        assertThrows(NullPointerException.class, () -> map.merge(1, null, Integer::sum));
+    }
+
+    @Test
+    void divisionHash_testViewsAndIteratorShouldFailFast() {
+        CollisionListResizableHashMap<Integer, Integer> map = new CollisionListResizableHashMap<>(divisionHash);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i * i);
+        }
+        assertTrue(map.keySet().contains(3));
+        assertTrue(map.values().contains(81));
+        assertTrue(map.entrySet().contains(Map.entry(4, 16)));
+        assertFalse(map.entrySet().contains(Map.entry(4, 17)));
+        int sum = 0;
+        for (Map.Entry<Integer, Integer> e : map.entrySet()) {
+            sum += e.getValue();
+        }
+        assertEquals(285, sum);
+        Iterator<Integer> it = map.keySet().iterator();
+        it.next();
+        map.put(42, 0);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void multiplicationHash_testRemovalThroughViews() {
+        CollisionListResizableHashMap<Integer, Integer> map = new CollisionListResizableHashMap<>(multiplicationHash);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i % 10);
+            expected.put(i, i % 10);
+        }
+        assertTrue(map.keySet().remove(7));
+        assertFalse(map.keySet().remove(7));
+        expected.remove(7);
+        assertTrue(map.entrySet().removeIf(e -> e.getKey() % 3 == 0));
+        expected.entrySet().removeIf(e -> e.getKey() % 3 == 0);
+        assertTrue(map.values().retainAll(Arrays.asList(1, 2, 5)));
+        expected.values().retainAll(Arrays.asList(1, 2, 5));
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, () -> it.remove());
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(map.isEmpty());
+        map.put(1, 1);
+        map.put(2, 2);
+        Iterator<Integer> keys = map.keySet().iterator();
+        keys.next();
+        map.put(3, 3);
+        assertThrows(ConcurrentModificationException.class, () -> keys.remove());
+    }
+
+}
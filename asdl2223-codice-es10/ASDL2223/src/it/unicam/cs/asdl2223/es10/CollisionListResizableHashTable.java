@@ -4,27 +4,137 @@ import java.util.*;
 
 public class CollisionListResizableHashTable<E> implements Set<E> {
     private static final int INITIAL_CAPACITY = 16;
-    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    // con fattore di riduzione 0 la tabella non si restringe mai da sola
+    private static final double DEFAULT_SHRINK_FACTOR = 0;
+    private static final int MIGRATION_STEP = 4;
+    // una lista di collisione diventa un albero bilanciato quando raggiunge TREEIFY_THRESHOLD
+    // elementi e torna lista quando scende a UNTREEIFY_THRESHOLD
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    // con una funzione primaria con seme, un bucket che supera RESEED_CHAIN_LENGTH elementi fa
+    // scegliere un nuovo seme e ridistribuire la tabella, al massimo una volta per capacità
+    private static final int RESEED_CHAIN_LENGTH = 16;
+    private final double loadFactor;
+    private final double shrinkFactor;
+    // capacità iniziale, sotto la quale la tabella non scende restringendosi e a cui torna con clear()
+    private final int minimumCapacity;
     private int size;
     private Object[] table;
-    private final PrimaryHashFunction phf;
+    private PrimaryHashFunction phf;
+    private final HashMixer mixer;
     private int modCount;
+    private final boolean incrementalResize;
+    // durante una migrazione incrementale contiene i bucket non ancora spostati in table
+    private Object[] oldTable;
+    private int migrationIndex;
+    private boolean reseededAtCurrentCapacity;
+    // null finché le statistiche non vengono attivate: il costo sul percorso veloce è un solo controllo
+    private HashTableStatistics statistics;
+    // null se non attivato; ricostruito a ogni ridimensionamento, dimensionato sulla soglia di crescita
+    private CountingBloomFilter bloomFilter;
+    private double bloomFalsePositiveRate;
 
     private int getCurrentCapacity() {
         return this.table.length;
     };
 
     private int getCurrentThreshold() {
-        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+        return (int) (getCurrentCapacity() * loadFactor);
+    }
+
+    private int getCurrentShrinkThreshold() {
+        return (int) (getCurrentCapacity() * shrinkFactor);
     }
 
     public CollisionListResizableHashTable(PrimaryHashFunction phf) {
-        this.phf = phf;
-        this.table = new Object[INITIAL_CAPACITY];
+        this(phf, new Murmur3HashMixer(), false);
+    }
+
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, boolean incrementalResize) {
+        this(phf, new Murmur3HashMixer(), incrementalResize);
+    }
+
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, HashMixer mixer) {
+        this(phf, mixer, false);
+    }
+
+    /**
+     * Crea una tabella già abbastanza grande da contenere expectedSize elementi senza ridimensionamenti.
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, int expectedSize) {
+        this(phf, new Murmur3HashMixer(), false, expectedSize);
+    }
+
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, HashMixer mixer, boolean incrementalResize) {
+        this(phf, mixer, incrementalResize, 0);
+    }
+
+    /**
+     * Crea una tabella che raddoppia quando size supera capacità * loadFactor e si dimezza, in modo
+     * incrementale, quando size scende sotto capacità * shrinkFactor. Con shrinkFactor 0 la tabella
+     * non si restringe mai; altrimenti deve essere minore di loadFactor / 2, perché una tabella
+     * appena ristretta non debba subito ricrescere. Il ridimensionamento è sempre incrementale; per
+     * sceglierlo si usa il costruttore che accetta anche mixer e incrementalResize.
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, int expectedSize, double loadFactor,
+            double shrinkFactor) {
+        this(phf, new Murmur3HashMixer(), true, expectedSize, loadFactor, shrinkFactor);
+    }
+
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, HashMixer mixer, boolean incrementalResize,
+            int expectedSize) {
+        this(phf, mixer, incrementalResize, expectedSize, DEFAULT_LOAD_FACTOR, DEFAULT_SHRINK_FACTOR);
+    }
+
+    public CollisionListResizableHashTable(PrimaryHashFunction phf, HashMixer mixer, boolean incrementalResize,
+            int expectedSize, double loadFactor, double shrinkFactor) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (mixer == null) {
+            throw new NullPointerException("Hash mixer cannot be null");
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        if (!(loadFactor > 0) || Double.isInfinite(loadFactor)) {
+            throw new IllegalArgumentException("Load factor must be positive: " + loadFactor);
+        }
+        if (!(shrinkFactor >= 0 && shrinkFactor < loadFactor / 2)) {
+            throw new IllegalArgumentException("Shrink factor must be in [0, loadFactor / 2): " + shrinkFactor);
+        }
+        // ogni tabella usa un proprio seme, anche se riceve un'istanza condivisa
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = mixer;
+        this.incrementalResize = incrementalResize;
+        this.loadFactor = loadFactor;
+        this.shrinkFactor = shrinkFactor;
+        this.minimumCapacity = capacityFor(expectedSize);
+        this.table = new Object[minimumCapacity];
         this.size = 0;
         this.modCount = 0;
     }
 
+    // la più piccola potenza di due, almeno INITIAL_CAPACITY, la cui soglia non è superata da n elementi
+    private int capacityFor(long n) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && (int) (capacity * loadFactor) < n) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    // l'hashCode viene prima rimescolato, poi ridotto all'intervallo [0, length) dalla funzione primaria
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    private int indexFor(int hash, int length) {
+        return phf.hash(hash, length);
+    }
+
     @Override
     public int size() {
         return this.size;
@@ -40,13 +150,66 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if (element == null) {
             throw new NullPointerException("Element cannot be null");
         }
-        int index = Math.abs(element.hashCode() % table.length);
-        if (table[index] == null) {
+        int h = hash(element);
+        if (bloomFilter != null && !bloomFilter.mightContain(h)) {
+            // assenza certa: la tabella non viene consultata
+            if (statistics != null) {
+                statistics.recordLookup(false, 0);
+            }
             return false;
         }
-        Node<E> node = (Node<E>) table[index];
+        boolean found = statistics != null ? containsAndRecord(element, h) : containsHashed(element, h);
+        if (!found && bloomFilter != null) {
+            bloomFilter.recordFalsePositive();
+        }
+        return found;
+    }
+
+    private boolean containsHashed(Object element, int h) {
+        if (findInBucket(table, element, h)) {
+            return true;
+        }
+        return oldTable != null && findInBucket(oldTable, element, h);
+    }
+
+    private boolean containsAndRecord(Object element, int h) {
+        int result = countProbes(table, element, h);
+        if (result < 0 && oldTable != null) {
+            int oldResult = countProbes(oldTable, element, h);
+            result = oldResult >= 0 ? oldResult + ~result : ~(~oldResult + ~result);
+        }
+        boolean found = result >= 0;
+        statistics.recordLookup(found, found ? result : ~result);
+        return found;
+    }
+
+    /**
+     * Restituisce il numero di confronti se l'elemento è presente nel bucket, altrimenti il
+     * complemento bit a bit del numero di confronti.
+     */
+    private int countProbes(Object[] t, Object element, int h) {
+        Object bucket = t[indexFor(h, t.length)];
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<E>) bucket).countProbes(h, element);
+        }
+        int probes = 0;
+        for (Node<E> node = (Node<E>) bucket; node != null; node = node.next) {
+            probes++;
+            if (node.hash == h && node.item.equals(element)) {
+                return probes;
+            }
+        }
+        return ~probes;
+    }
+
+    private boolean findInBucket(Object[] t, Object element, int h) {
+        Object bucket = t[indexFor(h, t.length)];
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<E>) bucket).find(h, element) != null;
+        }
+        Node<E> node = (Node<E>) bucket;
         while (node != null) {
-            if (node.item.equals(element)) {
+            if (node.hash == h && node.item.equals(element)) {
                 return true;
             }
             node = node.next;
@@ -60,14 +223,58 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return new Itr();
     }
 
+    @Override
+    public Spliterator<E> spliterator() {
+        return new BucketSpliterator(oldTable, table, 0, -1, size, true);
+    }
+
+    @Override
+    public void forEach(java.util.function.Consumer<? super E> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        int expectedModCount = modCount;
+        if (oldTable != null) {
+            forEachInTable(oldTable, action);
+        }
+        forEachInTable(table, action);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Table modified during forEach");
+        }
+    }
+
+    private static <E> void forEachInTable(Object[] t, java.util.function.Consumer<? super E> action) {
+        for (Object bucket : t) {
+            for (Node<E> node = firstNode(bucket); node != null; node = node.next) {
+                action.accept(node.item);
+            }
+        }
+    }
+
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException("Operazione non supportata");
+        Object[] result = new Object[size];
+        int i = 0;
+        for (E element : this) {
+            result[i++] = element;
+        }
+        return result;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
-        throw new UnsupportedOperationException("Operazione non supportata");
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (E element : this) {
+            a[i++] = (T) element;
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
     }
 
     @Override
@@ -75,68 +282,259 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if (e == null) {
             throw new NullPointerException("Element cannot be null");
         }
-        if (contains(e)) {
+        int h = hash(e);
+        // se il filtro esclude l'elemento non serve cercarlo, ma il bucket va percorso comunque
+        // per contarne la lunghezza
+        boolean mightContain = bloomFilter == null || bloomFilter.probe(h);
+        if (oldTable != null && mightContain && findInBucket(oldTable, e, h)) {
             return false;
         }
-        int index = Math.abs(e.hashCode() % table.length);
-        Node<E> node = new Node<>(e, null);
-        if (table[index] == null) {
-            table[index] = node;
+        int index = indexFor(h, table.length);
+        if (table[index] instanceof TreeBin) {
+            TreeBin<E> bin = (TreeBin<E>) table[index];
+            if (mightContain && bin.find(h, e) != null) {
+                return false;
+            }
+            bin.insert(new TreeNode<>(e, h));
+            if (bin.count > RESEED_CHAIN_LENGTH && phf instanceof SeededPrimaryHashFunction
+                    && !reseededAtCurrentCapacity) {
+                reseed();
+            }
         } else {
-            node.next = (Node<E>) table[index];
-            table[index] = node;
+            // un solo passaggio sulla lista: cerca l'elemento e ne conta la lunghezza, poi il nuovo
+            // nodo va in testa senza ripercorrerla
+            Node<E> head = (Node<E>) table[index];
+            int length = 1;
+            for (Node<E> node = head; node != null; node = node.next) {
+                if (mightContain && node.hash == h && node.item.equals(e)) {
+                    return false;
+                }
+                length++;
+            }
+            Node<E> node = new Node<>(e, h, head);
+            table[index] = length >= TREEIFY_THRESHOLD ? treeify(node) : node;
+        }
+        if (bloomFilter != null) {
+            bloomFilter.add(h);
         }
         size++;
         modCount++;
+        // i bucket si spostano solo dopo un inserimento effettivo, che ha già invalidato gli
+        // iteratori: un duplicato rifiutato lascia la tabella com'è
+        if (oldTable != null) {
+            migrateStep();
+        }
         if (size > getCurrentThreshold()) {
             resize();
         }
         return true;
     }
 
+    private void reseed() {
+        if (oldTable != null) {
+            finishMigration();
+        }
+        HashTableResizeEvent event = statistics != null ? HashTableStatistics.beginResize() : null;
+        long start = statistics != null ? System.nanoTime() : 0;
+        reseededAtCurrentCapacity = true;
+        phf = ((SeededPrimaryHashFunction) phf).reseed();
+        Object[] previous = table;
+        table = new Object[previous.length];
+        for (Object bucket : previous) {
+            transferBucket(bucket, table);
+        }
+        if (statistics != null) {
+            statistics.recordResize(previous.length, table.length, start, event);
+        }
+    }
+
     private void resize() {
-            Object[] oldTable = table;
-            table = new Object[oldTable.length * 2];
-            size = 0;
-            for (Object bucket : oldTable) {
-                if (bucket != null) {
-                    Node<E> node = (Node<E>) bucket;
-                    while (node != null) {
-                        add(node.item);
-                        node = node.next;
-                    }
-                }
+        resize(table.length * 2);
+    }
+
+    private void resize(int newCapacity) {
+        if (oldTable != null) {
+            finishMigration();
+        }
+        HashTableResizeEvent event = statistics != null ? HashTableStatistics.beginResize() : null;
+        long start = statistics != null ? System.nanoTime() : 0;
+        Object[] previous = table;
+        table = new Object[newCapacity];
+        reseededAtCurrentCapacity = false;
+        if (incrementalResize) {
+            // i bucket vengono spostati un po' alla volta dalle successive operazioni di modifica
+            oldTable = previous;
+            migrationIndex = 0;
+            migrateStep();
+        } else {
+            for (Object bucket : previous) {
+                transferBucket(bucket, table);
             }
         }
+        if (bloomFilter != null) {
+            rebuildBloomFilter();
+        }
+        if (statistics != null) {
+            statistics.recordResize(previous.length, table.length, start, event);
+        }
+    }
 
+    // usa gli hash memorizzati nei nodi: nessuna chiamata a hashCode
+    private void rebuildBloomFilter() {
+        bloomFilter = new CountingBloomFilter(Math.max(size, getCurrentThreshold()), bloomFalsePositiveRate);
+        if (oldTable != null) {
+            addToBloomFilter(oldTable);
+        }
+        addToBloomFilter(table);
+    }
 
-        @Override
-    public boolean remove(Object o) {
-            if (o == null) {
-                throw new NullPointerException("Element cannot be null");
+    private void addToBloomFilter(Object[] t) {
+        for (Object bucket : t) {
+            for (Node<E> node = firstNode(bucket); node != null; node = node.next) {
+                bloomFilter.add(node.hash);
             }
-            int index = Math.abs(o.hashCode() % table.length);
-            if (table[index] == null) {
+        }
+    }
+
+    private void transferBucket(Object bucket, Object[] dest) {
+        Node<E> node = firstNode(bucket);
+        while (node != null) {
+            Node<E> next = node.next;
+            // l'hash memorizzato evita di richiamare hashCode durante il ridimensionamento
+            int h = node.hash;
+            int index = indexFor(h, dest.length);
+            if (dest[index] instanceof TreeBin) {
+                ((TreeBin<E>) dest[index]).insert(node instanceof TreeNode ? (TreeNode<E>) node
+                        : new TreeNode<>(node.item, h));
+            } else {
+                linkFirst(dest, index, node);
+            }
+            node = next;
+        }
+    }
+
+    private void linkFirst(Object[] t, int index, Node<E> node) {
+        node.next = (Node<E>) t[index];
+        t[index] = node;
+        int length = 0;
+        for (Node<E> n = node; n != null && length < TREEIFY_THRESHOLD; n = n.next) {
+            length++;
+        }
+        if (length >= TREEIFY_THRESHOLD) {
+            t[index] = treeify(node);
+        }
+    }
+
+    private TreeBin<E> treeify(Node<E> head) {
+        TreeBin<E> bin = new TreeBin<>();
+        Node<E> node = head;
+        while (node != null) {
+            Node<E> next = node.next;
+            bin.insert(node instanceof TreeNode ? (TreeNode<E>) node : new TreeNode<>(node.item, node.hash));
+            node = next;
+        }
+        return bin;
+    }
+
+    private void migrateStep() {
+        int end = Math.min(migrationIndex + MIGRATION_STEP, oldTable.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            transferBucket(oldTable[migrationIndex], table);
+            oldTable[migrationIndex] = null;
+        }
+        if (migrationIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    private void finishMigration() {
+        while (oldTable != null) {
+            migrateStep();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(o);
+        if (!removeFromBucket(table, o, h) && (oldTable == null || !removeFromBucket(oldTable, o, h))) {
+            return false;
+        }
+        removeFromBloomFilter(h);
+        size--;
+        modCount++;
+        if (oldTable != null) {
+            migrateStep();
+        }
+        if (size < getCurrentShrinkThreshold()) {
+            shrink();
+        }
+        return true;
+    }
+
+    /**
+     * Dimezza la capacità finché size è sotto capacità * shrinkFactor, senza scendere sotto la
+     * capacità iniziale: dopo una singola rimozione basta un dimezzamento, dopo una rimozione in
+     * blocco anche più d'uno. In modalità incrementale i bucket vengono spostati dalle operazioni
+     * successive, come durante la crescita.
+     */
+    private void shrink() {
+        int target = table.length;
+        while (target / 2 >= minimumCapacity && size < target * shrinkFactor) {
+            target /= 2;
+        }
+        if (target < table.length) {
+            resize(target);
+        }
+    }
+
+    /**
+     * Riduce la tabella alla capacità minima che contiene gli elementi attuali senza superare la
+     * soglia di crescita, completando subito lo spostamento dei bucket.
+     */
+    public void trimToSize() {
+        int target = capacityFor(size);
+        if (target < table.length) {
+            resize(target);
+        }
+        if (oldTable != null) {
+            finishMigration();
+        }
+    }
+
+    private boolean removeFromBucket(Object[] t, Object o, int h) {
+        int index = indexFor(h, t.length);
+        if (t[index] instanceof TreeBin) {
+            TreeBin<E> bin = (TreeBin<E>) t[index];
+            TreeNode<E> node = bin.find(h, o);
+            if (node == null) {
                 return false;
             }
-            Node<E> node = (Node<E>) table[index];
-            Node<E> prev = null;
-            while (node != null) {
-                if (node.item.equals(o)) {
-                    if (prev == null) {
-                        table[index] = node.next;
-                    } else {
-                        prev.next = node.next;
-                    }
-                    size--;
-                    modCount++;
-                    return true;
+            bin.remove(node);
+            if (bin.count <= UNTREEIFY_THRESHOLD) {
+                // i nodi dell'albero sono già concatenati tramite next
+                t[index] = bin.first;
+            }
+            return true;
+        }
+        Node<E> node = (Node<E>) t[index];
+        Node<E> prev = null;
+        while (node != null) {
+            if (node.hash == h && node.item.equals(o)) {
+                if (prev == null) {
+                    t[index] = node.next;
+                } else {
+                    prev.next = node.next;
                 }
-                prev = node;
-                node = node.next;
+                return true;
             }
-            return false;
+            prev = node;
+            node = node.next;
         }
+        return false;
+    }
 
 
     @Override
@@ -159,6 +557,11 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if (c == null) {
             throw new NullPointerException("Collection cannot be null");
         }
+        // un solo ridimensionamento per tutto il lotto: la stima per eccesso ignora i duplicati
+        int needed = capacityFor((long) size + c.size());
+        if (needed > table.length) {
+            resize(needed);
+        }
         boolean modified = false;
         for (E element : c) {
             boolean added = add(element);
@@ -171,7 +574,10 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        throw new UnsupportedOperationException("Operazione non supportata");
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        return removeMatching(c, false);
     }
 
     @Override
@@ -181,6 +587,10 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
                 throw new NullPointerException("Collection cannot contain null elements");
             }
         }
+        if (c.size() > size) {
+            // conviene una sola scansione della tabella interrogando c
+            return removeMatching(c, true);
+        }
         boolean modified = false;
         for (Object element : c) {
             boolean removed = remove(element);
@@ -191,44 +601,382 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return modified;
     }
 
+    /**
+     * Scandisce una sola volta i bucket e scollega sul posto gli elementi per cui c.contains
+     * vale contained.
+     */
+    private boolean removeMatching(Collection<?> c, boolean contained) {
+        int removed = sweep(table, c, contained);
+        if (oldTable != null) {
+            removed += sweep(oldTable, c, contained);
+        }
+        if (removed == 0) {
+            return false;
+        }
+        size -= removed;
+        modCount++;
+        if (size < getCurrentShrinkThreshold()) {
+            shrink();
+        }
+        return true;
+    }
+
+    private int sweep(Object[] t, Collection<?> c, boolean contained) {
+        int removed = 0;
+        for (int index = 0; index < t.length; index++) {
+            if (t[index] instanceof TreeBin) {
+                TreeBin<E> bin = (TreeBin<E>) t[index];
+                TreeNode<E> node = bin.first;
+                while (node != null) {
+                    TreeNode<E> next = (TreeNode<E>) node.next;
+                    if (c.contains(node.item) == contained) {
+                        bin.remove(node);
+                        removeFromBloomFilter(node.hash);
+                        removed++;
+                    }
+                    node = next;
+                }
+                if (bin.count <= UNTREEIFY_THRESHOLD) {
+                    t[index] = bin.first;
+                }
+            } else {
+                Node<E> node = (Node<E>) t[index];
+                Node<E> prev = null;
+                while (node != null) {
+                    if (c.contains(node.item) == contained) {
+                        if (prev == null) {
+                            t[index] = node.next;
+                        } else {
+                            prev.next = node.next;
+                        }
+                        removeFromBloomFilter(node.hash);
+                        removed++;
+                    } else {
+                        prev = node;
+                    }
+                    node = node.next;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private void removeFromBloomFilter(int h) {
+        if (bloomFilter != null) {
+            bloomFilter.remove(h);
+        }
+    }
+
     @Override
     public void clear() {
-        this.table = new Object[INITIAL_CAPACITY];
+        this.table = new Object[minimumCapacity];
+        this.oldTable = null;
+        this.reseededAtCurrentCapacity = false;
         this.size = 0;
         this.modCount = 0;
+        if (bloomFilter != null) {
+            rebuildBloomFilter();
+        }
     }
 
     protected static class Node<E> {
         protected E item;
 
+        // hash rimescolato dell'elemento, confrontato prima di equals e riusato dai ridimensionamenti
+        protected final int hash;
+
         protected Node<E> next;
 
-        Node(E item, Node<E> next) {
+        Node(E item, int hash, Node<E> next) {
             this.item = item;
+            this.hash = hash;
             this.next = next;
         }
     }
 
+    protected static <E> Node<E> firstNode(Object bucket) {
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<E>) bucket).first;
+        }
+        return (Node<E>) bucket;
+    }
+
+    protected static class TreeNode<E> extends Node<E> {
+        protected TreeNode<E> left;
+
+        protected TreeNode<E> right;
+
+        protected TreeNode<E> prev;
+
+        protected int height;
+
+        TreeNode(E item, int hash) {
+            super(item, hash, null);
+        }
+    }
+
+    /**
+     * Bucket ad albero AVL ordinato per hash, poi per compareTo quando gli elementi sono Comparable
+     * della stessa classe, infine per nome della classe e identityHashCode. I nodi sono anche
+     * concatenati in una lista doppia a partire da first, usata per l'iterazione.
+     */
+    protected static final class TreeBin<E> {
+        protected TreeNode<E> root;
+
+        protected TreeNode<E> first;
+
+        protected int count;
+
+        private boolean removed;
+
+        private int probes;
+
+        protected TreeNode<E> find(int h, Object o) {
+            return find(root, h, o);
+        }
+
+        private TreeNode<E> find(TreeNode<E> p, int h, Object o) {
+            while (p != null) {
+                if (h < p.hash) {
+                    p = p.left;
+                } else if (h > p.hash) {
+                    p = p.right;
+                } else if (p.item.equals(o)) {
+                    return p;
+                } else {
+                    int c = comparableOrder(o, p.item);
+                    if (c < 0) {
+                        p = p.left;
+                    } else if (c > 0) {
+                        p = p.right;
+                    } else {
+                        // l'ordine non permette di scegliere: si cerca in entrambi i sottoalberi
+                        TreeNode<E> q = find(p.right, h, o);
+                        if (q != null) {
+                            return q;
+                        }
+                        p = p.left;
+                    }
+                }
+            }
+            return null;
+        }
+
+        protected int countProbes(int h, Object o) {
+            probes = 0;
+            return findCounting(root, h, o) ? probes : ~probes;
+        }
+
+        private boolean findCounting(TreeNode<E> p, int h, Object o) {
+            while (p != null) {
+                probes++;
+                if (h < p.hash) {
+                    p = p.left;
+                } else if (h > p.hash) {
+                    p = p.right;
+                } else if (p.item.equals(o)) {
+                    return true;
+                } else {
+                    int c = comparableOrder(o, p.item);
+                    if (c < 0) {
+                        p = p.left;
+                    } else if (c > 0) {
+                        p = p.right;
+                    } else {
+                        if (findCounting(p.right, h, o)) {
+                            return true;
+                        }
+                        p = p.left;
+                    }
+                }
+            }
+            return false;
+        }
+
+        protected void insert(TreeNode<E> x) {
+            x.left = null;
+            x.right = null;
+            x.height = 1;
+            root = insert(root, x);
+            x.prev = null;
+            x.next = first;
+            if (first != null) {
+                first.prev = x;
+            }
+            first = x;
+            count++;
+        }
+
+        private TreeNode<E> insert(TreeNode<E> p, TreeNode<E> x) {
+            if (p == null) {
+                return x;
+            }
+            if (compareNodes(x, p) < 0) {
+                p.left = insert(p.left, x);
+            } else {
+                p.right = insert(p.right, x);
+            }
+            return balance(p);
+        }
+
+        protected void remove(TreeNode<E> x) {
+            removed = false;
+            root = delete(root, x);
+            if (x.prev == null) {
+                first = (TreeNode<E>) x.next;
+            } else {
+                x.prev.next = x.next;
+            }
+            if (x.next != null) {
+                ((TreeNode<E>) x.next).prev = x.prev;
+            }
+            x.next = null;
+            x.prev = null;
+            count--;
+        }
+
+        private TreeNode<E> delete(TreeNode<E> p, TreeNode<E> x) {
+            if (p == null) {
+                return null;
+            }
+            if (p == x) {
+                removed = true;
+                if (p.left == null) {
+                    return p.right;
+                }
+                if (p.right == null) {
+                    return p.left;
+                }
+                TreeNode<E> successor = p.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                successor.right = deleteMin(p.right);
+                successor.left = p.left;
+                return balance(successor);
+            }
+            int c = compareNodes(x, p);
+            if (c < 0) {
+                p.left = delete(p.left, x);
+            } else if (c > 0) {
+                p.right = delete(p.right, x);
+            } else {
+                p.left = delete(p.left, x);
+                if (!removed) {
+                    p.right = delete(p.right, x);
+                }
+            }
+            return balance(p);
+        }
+
+        private TreeNode<E> deleteMin(TreeNode<E> p) {
+            if (p.left == null) {
+                return p.right;
+            }
+            p.left = deleteMin(p.left);
+            return balance(p);
+        }
+
+        private static int height(TreeNode<?> p) {
+            return p == null ? 0 : p.height;
+        }
+
+        private static void updateHeight(TreeNode<?> p) {
+            p.height = Math.max(height(p.left), height(p.right)) + 1;
+        }
+
+        private TreeNode<E> rotateLeft(TreeNode<E> p) {
+            TreeNode<E> r = p.right;
+            p.right = r.left;
+            r.left = p;
+            updateHeight(p);
+            updateHeight(r);
+            return r;
+        }
+
+        private TreeNode<E> rotateRight(TreeNode<E> p) {
+            TreeNode<E> l = p.left;
+            p.left = l.right;
+            l.right = p;
+            updateHeight(p);
+            updateHeight(l);
+            return l;
+        }
+
+        private TreeNode<E> balance(TreeNode<E> p) {
+            updateHeight(p);
+            int factor = height(p.left) - height(p.right);
+            if (factor > 1) {
+                if (height(p.left.left) < height(p.left.right)) {
+                    p.left = rotateLeft(p.left);
+                }
+                return rotateRight(p);
+            }
+            if (factor < -1) {
+                if (height(p.right.right) < height(p.right.left)) {
+                    p.right = rotateRight(p.right);
+                }
+                return rotateLeft(p);
+            }
+            return p;
+        }
+
+        private static int compareNodes(TreeNode<?> a, TreeNode<?> b) {
+            if (a.hash != b.hash) {
+                return a.hash < b.hash ? -1 : 1;
+            }
+            int c = comparableOrder(a.item, b.item);
+            if (c != 0) {
+                return c;
+            }
+            c = a.item.getClass().getName().compareTo(b.item.getClass().getName());
+            if (c != 0) {
+                return c;
+            }
+            return Integer.compare(System.identityHashCode(a.item), System.identityHashCode(b.item));
+        }
+
+        private static int comparableOrder(Object a, Object b) {
+            if (a instanceof Comparable && a.getClass() == b.getClass()) {
+                try {
+                    return Integer.signum(((Comparable<Object>) a).compareTo(b));
+                } catch (ClassCastException e) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+    }
+
     private class Itr implements Iterator<E> {
         private int numeroModificheAtteso;
+        private final Object[][] tables;
+        private int currentTable;
         private int currentIndex;
         private Node<E> currentNode;
         private Node<E> previousNode;
 
         private Itr() {
             numeroModificheAtteso = modCount;
+            tables = oldTable == null ? new Object[][] { table } : new Object[][] { oldTable, table };
+            currentTable = 0;
             currentIndex = 0;
             currentNode = findNextNode();
             previousNode = null;
         }
 
         private Node<E> findNextNode() {
-            while (currentIndex < table.length) {
-                if (table[currentIndex] == null) {
-                    currentIndex++;
-                } else {
-                    return (Node<E>) table[currentIndex];
+            while (currentTable < tables.length) {
+                Object[] t = tables[currentTable];
+                while (currentIndex < t.length) {
+                    if (t[currentIndex] == null) {
+                        currentIndex++;
+                    } else {
+                        return firstNode(t[currentIndex]);
+                    }
                 }
+                currentTable++;
+                currentIndex = 0;
             }
             return null;
         }
@@ -258,12 +1006,198 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         }
     }
 
+    /**
+     * Spliterator su un intervallo di bucket. Durante una migrazione incrementale gli indici
+     * percorrono prima oldTable e poi table, come se fossero un unico array. La divisione dimezza
+     * l'intervallo; solo lo spliterator iniziale conosce la dimensione esatta.
+     */
+    private final class BucketSpliterator implements Spliterator<E> {
+        private final Object[] first;
+        private final Object[] second;
+        private int index;
+        private int fence;
+        private int estimate;
+        // vale solo finché lo spliterator non viene diviso, come in HashMap
+        private boolean exact;
+        private int numeroModificheAtteso;
+        private Node<E> currentNode;
+
+        private BucketSpliterator(Object[] first, Object[] second, int origin, int fence, int estimate,
+                boolean exact) {
+            this.first = first;
+            this.second = second;
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+            this.numeroModificheAtteso = modCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = (first == null ? 0 : first.length) + second.length;
+            }
+            return fence;
+        }
+
+        private Object bucketAt(int i) {
+            if (first == null) {
+                return second[i];
+            }
+            return i < first.length ? first[i] : second[i - first.length];
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int mid = (index + hi) >>> 1;
+            if (index >= mid || currentNode != null) {
+                return null;
+            }
+            estimate >>>= 1;
+            exact = false;
+            BucketSpliterator prefix = new BucketSpliterator(first, second, index, mid, estimate, false);
+            prefix.numeroModificheAtteso = numeroModificheAtteso;
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(java.util.function.Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            int hi = getFence();
+            while (currentNode != null || index < hi) {
+                if (currentNode == null) {
+                    currentNode = firstNode(bucketAt(index++));
+                    continue;
+                }
+                E item = currentNode.item;
+                currentNode = currentNode.next;
+                action.accept(item);
+                if (modCount != numeroModificheAtteso) {
+                    throw new ConcurrentModificationException("Table modified during traversal");
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            int hi = getFence();
+            for (Node<E> node = currentNode; node != null; node = node.next) {
+                action.accept(node.item);
+            }
+            currentNode = null;
+            for (; index < hi; index++) {
+                for (Node<E> node = firstNode(bucketAt(index)); node != null; node = node.next) {
+                    action.accept(node.item);
+                }
+            }
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Table modified during traversal");
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (exact ? SIZED : 0) | DISTINCT | NONNULL;
+        }
+    }
+
+    /**
+     * Attiva la raccolta delle statistiche (se non già attiva) e le restituisce.
+     */
+    public HashTableStatistics enableStatistics() {
+        if (statistics == null) {
+            statistics = new HashTableStatistics(this);
+        }
+        return statistics;
+    }
+
+    public void disableStatistics() {
+        if (statistics != null) {
+            try {
+                statistics.unregister();
+            } catch (javax.management.JMException e) {
+                throw new IllegalStateException("Cannot unregister statistics MBean", e);
+            }
+            statistics = null;
+        }
+    }
+
+    public HashTableStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Affianca alla tabella un filtro di Bloom a contatori che risponde alle ricerche di elementi
+     * sicuramente assenti senza consultare i bucket. Il filtro è dimensionato sulla soglia di
+     * crescita, quindi la probabilità di falso positivo resta vicina a falsePositiveRate.
+     */
+    public CountingBloomFilter enableBloomFilter(double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        this.bloomFalsePositiveRate = falsePositiveRate;
+        rebuildBloomFilter();
+        return bloomFilter;
+    }
+
+    public void disableBloomFilter() {
+        this.bloomFilter = null;
+    }
+
+    public CountingBloomFilter getBloomFilter() {
+        return this.bloomFilter;
+    }
+
+    /**
+     * Restituisce una copia immutabile dell'insieme basata su una funzione hash perfetta
+     * minimale. La tabella resta utilizzabile e le sue modifiche successive non si vedono nella
+     * copia.
+     */
+    public FrozenHashSet<E> freeze() {
+        return new FrozenHashSet<>(this);
+    }
+
+    public double getLoadFactor() {
+        return this.loadFactor;
+    }
+
+    public double getShrinkFactor() {
+        return this.shrinkFactor;
+    }
+
     protected Object[] getTable() {
         return this.table;
     }
 
+    protected Object[] getOldTable() {
+        return this.oldTable;
+    }
+
+    protected boolean isMigrating() {
+        return this.oldTable != null;
+    }
+
     protected PrimaryHashFunction getPhf() {
         return this.phf;
     }
 
+    protected HashMixer getMixer() {
+        return this.mixer;
+    }
+
 }
@@ -1,502 +1,1181 @@
-package it.unicam.cs.asdl2223.es10;
-
-import static org.junit.jupiter.api.Assertions.*;
-
-import java.util.Arrays;
-import java.util.ConcurrentModificationException;
-import java.util.Iterator;
-import java.util.List;
-
-import org.junit.jupiter.api.Test;
-
-class CollisionListResizableHashTableTest {
-
-    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
-
-    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
-
-    @Test
-    void divisionHash_testContains() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.add(val);
-        assertTrue(table.contains(val));
-    }
-
-    @Test
-    void multiplicationHash_testContains() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.add(val);
-        assertTrue(table.contains(val));
-    }
-
-    @Test
-    void divisionHash_testContainsNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.contains(null);
-        });
-    }
-
-    @Test
-    void multiplicationHash_testContainsNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.contains(null);
-        });
-    }
-
-    @Test
-    void divisionHash_testContainsEmpty() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertFalse(table.contains(val));
-    }
-
-    @Test
-    void multiplicationHash_testContainsEmpty() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertFalse(table.contains(val));
-    }
-
-    @Test
-    void divisionHash_testNotContains() {
-        int val = 42;
-        int val_not_in = 10;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.add(val);
-        assertFalse(table.contains(val_not_in));
-    }
-
-    @Test
-    void multiplicationHash_testNotContains() {
-        int val = 42;
-        int val_not_in = 10;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.add(val);
-        assertFalse(table.contains(val_not_in));
-    }
-
-    @Test
-    void divisionHash_testAdd() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertTrue(table.add(val));
-    }
-
-    @Test
-    void multiplicationHash_testAdd() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertTrue(table.add(val));
-    }
-
-    @Test
-    void divisionHash_testAddNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.add(null);
-        });
-    }
-
-    @Test
-    void multiplicationHash_testAddNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.add(null);
-        });
-    }
-
-    @Test
-    void divisionHash_testNotAdd() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.add(val);
-        assertFalse(table.add(val));
-    }
-
-    @Test
-    void multiplicationHash_testNotAdd() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.add(val);
-        assertFalse(table.add(val));
-    }
-
-    @Test
-    void divisionHash_testRemove() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.add(val);
-        assertTrue(table.remove(val));
-    }
-
-    @Test
-    void multiplicationHash_testRemove() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.add(val);
-        assertTrue(table.remove(val));
-    }
-
-    @Test
-    void divisionHash_testRemoveNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.remove(null);
-        });
-    }
-
-    @Test
-    void multiplicationHash_testRemoveNull() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.remove(null);
-        });
-    }
-
-    @Test
-    void divisionHash_testNotRemove() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertFalse(table.remove(val));
-    }
-
-    @Test
-    void multiplicationHash_testNotRemove() {
-        int val = 42;
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertFalse(table.remove(val));
-    }
-
-    @Test
-    void divisionHash_testContainsAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.addAll(vals_list);
-        assertTrue(table.containsAll(Arrays.asList(vals)));
-    }
-
-    @Test
-    void multiplicationHash_testContainsAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.addAll(vals_list);
-        assertTrue(table.containsAll(Arrays.asList(vals)));
-    }
-
-    @Test
-    void divisionHash_testContainsAllWithNull() {
-        Integer vals[] = { null, 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.containsAll(vals_list);
-        });
-    }
-
-    @Test
-    void multiplicationHash_testContainsAllWithNull() {
-        Integer vals[] = { null, 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.containsAll(vals_list);
-        });
-    }
-
-    @Test
-    void divisionHash_testContainsNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.addAll(vals_list);
-        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
-        assertFalse(table.containsAll(Arrays.asList(vals_not_in)));
-    }
-
-    @Test
-    void multiplicationHash_testContainsNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.addAll(vals_list);
-        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
-        assertFalse(table.containsAll(Arrays.asList(vals_not_in)));
-    }
-
-    @Test
-    void divisionHash_testAddAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertTrue(table.addAll(vals_list));
-    }
-
-    @Test
-    void multiplicationHash_testAddAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertTrue(table.addAll(vals_list));
-    }
-
-    @Test
-    void divisionHash_testAddAllWithNull() {
-        Integer vals[] = { 12, 42, 5, 32, null, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.addAll(vals_list);
-        });
-    }
-
-    @Test
-    void multiplicationHash_testAddAllWithNull() {
-        Integer vals[] = { 12, 42, 5, 32, null, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        assertThrows(NullPointerException.class, () -> {
-            table.addAll(vals_list);
-        });
-    }
-
-    @Test
-    void divisionHash_testAddNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        int val_already_in = 12;
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.add(val_already_in);
-        assertTrue(table.addAll(vals_list));
-    }
-
-    @Test
-    void multiplicationHash_testAddNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        int val_already_in = 12;
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.add(val_already_in);
-        assertTrue(table.addAll(vals_list));
-    }
-
-    @Test
-    void divisionHash_testRemoveAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.addAll(vals_list);
-        assertTrue(table.removeAll(vals_list));
-    }
-
-    @Test
-    void multiplicationHash_testRemoveAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.addAll(vals_list);
-        assertTrue(table.removeAll(vals_list));
-    }
-
-    @Test
-    void divisionHash_testRemoveAllWithNull() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.addAll(vals_list);
-        Integer vals_to_remove[] = { 12, 42, 5, 32, null, 777, 11 };
-        assertThrows(NullPointerException.class, () -> {
-            table.removeAll(Arrays.asList(vals_to_remove));
-        });
-    }
-
-    @Test
-    void multiplicationHash_testRemoveAllWithNull() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.addAll(vals_list);
-        Integer vals_to_remove[] = { 12, 42, 5, 32, null, 777, 11 };
-        assertThrows(NullPointerException.class, () -> {
-            table.removeAll(Arrays.asList(vals_to_remove));
-        });
-    }
-
-    @Test
-    void divisionHash_testRemoveNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        table.addAll(vals_list);
-        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
-        assertTrue(table.removeAll(Arrays.asList(vals_not_in)));
-    }
-
-    @Test
-    void multiplicationHash_testRemoveNotAll() {
-        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
-        List<Integer> vals_list = Arrays.asList(vals);
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        table.addAll(vals_list);
-        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
-        assertTrue(table.removeAll(Arrays.asList(vals_not_in)));
-    }
-
-    @Test
-    void divisionHash_testShouldResize() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
-        table.addAll(Arrays.asList(vals));
-        int tableLengthBeforeAdd = table.getTable().length;
-        table.add(13);
-        int tableLengthAfterAdd = table.getTable().length;
-        assertEquals(tableLengthBeforeAdd * 2, tableLengthAfterAdd);
-    }
-
-    @Test
-    void divisionHash_testShouldNotResize() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        int tableLengthBeforeAdd = table.getTable().length;
-        table.add(12);
-        int tableLengthAfterAdd = table.getTable().length;
-        assertEquals(tableLengthBeforeAdd, tableLengthAfterAdd);
-    }
-
-    @Test
-    void multiplicationHash_testShouldResize() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
-        table.addAll(Arrays.asList(vals));
-        int tableLengthBeforeAdd = table.getTable().length;
-        table.add(13);
-        int tableLengthAfterAdd = table.getTable().length;
-        assertEquals(tableLengthBeforeAdd * 2, tableLengthAfterAdd);
-    }
-
-    @Test
-    void multiplicationHash_testShouldNotResize() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        int tableLengthBeforeAdd = table.getTable().length;
-        table.add(12);
-        int tableLengthAfterAdd = table.getTable().length;
-        assertEquals(tableLengthBeforeAdd, tableLengthAfterAdd);
-    }
-
-    @Test
-    void divisionHash_testIteratorShouldFailFast() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        Iterator<Integer> it = table.iterator();
-        it.next();
-        table.add(42);
-        assertThrows(ConcurrentModificationException.class, () -> {
-            it.next();
-        });
-    }
-
-    @Test
-    void multiplicationHash_testIteratorShouldFailFast() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        Iterator<Integer> it = table.iterator();
-        it.next();
-        table.add(42);
-        assertThrows(ConcurrentModificationException.class, () -> {
-            it.next();
-        });
-    }
-
-    @Test
-    void divisionHash_testIteratorShouldNotFailFast() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                divisionHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        Iterator<Integer> it = table.iterator();
-        boolean hasThrown = false;
-        while (it.hasNext() && !hasThrown) {
-            try {
-                it.next();
-            } catch (Exception e) {
-                hasThrown = true;
-            }
-        }
-
-        assertFalse(hasThrown);
-    }
-
-    @Test
-    void multiplicationHash_testIteratorShouldNotFailFast() {
-        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
-                multiplicationHash);
-        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
-        table.addAll(Arrays.asList(vals));
-        Iterator<Integer> it = table.iterator();
-        boolean hasThrown = false;
-        while (it.hasNext() && !hasThrown) {
-            try {
-                it.next();
-            } catch (Exception e) {
-                hasThrown = true;
-            }
-        }
-
-        assertFalse(hasThrown);
-    }
-
-}
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+
+import org.junit.jupiter.api.Test;
+
+class CollisionListResizableHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testContains() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(val);
+        assertTrue(table.contains(val));
+    }
+
+    @Test
+    void multiplicationHash_testContains() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.add(val);
+        assertTrue(table.contains(val));
+    }
+
+    @Test
+    void divisionHash_testContainsNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.contains(null);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testContainsNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.contains(null);
+        });
+    }
+
+    @Test
+    void divisionHash_testContainsEmpty() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.contains(val));
+    }
+
+    @Test
+    void multiplicationHash_testContainsEmpty() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertFalse(table.contains(val));
+    }
+
+    @Test
+    void divisionHash_testNotContains() {
+        int val = 42;
+        int val_not_in = 10;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(val);
+        assertFalse(table.contains(val_not_in));
+    }
+
+    @Test
+    void multiplicationHash_testNotContains() {
+        int val = 42;
+        int val_not_in = 10;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.add(val);
+        assertFalse(table.contains(val_not_in));
+    }
+
+    @Test
+    void divisionHash_testAdd() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertTrue(table.add(val));
+    }
+
+    @Test
+    void multiplicationHash_testAdd() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertTrue(table.add(val));
+    }
+
+    @Test
+    void divisionHash_testAddNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.add(null);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testAddNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.add(null);
+        });
+    }
+
+    @Test
+    void divisionHash_testNotAdd() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(val);
+        assertFalse(table.add(val));
+    }
+
+    @Test
+    void multiplicationHash_testNotAdd() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.add(val);
+        assertFalse(table.add(val));
+    }
+
+    @Test
+    void divisionHash_testRemove() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(val);
+        assertTrue(table.remove(val));
+    }
+
+    @Test
+    void multiplicationHash_testRemove() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.add(val);
+        assertTrue(table.remove(val));
+    }
+
+    @Test
+    void divisionHash_testRemoveNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.remove(null);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testRemoveNull() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.remove(null);
+        });
+    }
+
+    @Test
+    void divisionHash_testNotRemove() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.remove(val));
+    }
+
+    @Test
+    void multiplicationHash_testNotRemove() {
+        int val = 42;
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertFalse(table.remove(val));
+    }
+
+    @Test
+    void divisionHash_testContainsAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.addAll(vals_list);
+        assertTrue(table.containsAll(Arrays.asList(vals)));
+    }
+
+    @Test
+    void multiplicationHash_testContainsAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.addAll(vals_list);
+        assertTrue(table.containsAll(Arrays.asList(vals)));
+    }
+
+    @Test
+    void divisionHash_testContainsAllWithNull() {
+        Integer vals[] = { null, 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.containsAll(vals_list);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testContainsAllWithNull() {
+        Integer vals[] = { null, 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.containsAll(vals_list);
+        });
+    }
+
+    @Test
+    void divisionHash_testContainsNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.addAll(vals_list);
+        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
+        assertFalse(table.containsAll(Arrays.asList(vals_not_in)));
+    }
+
+    @Test
+    void multiplicationHash_testContainsNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.addAll(vals_list);
+        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
+        assertFalse(table.containsAll(Arrays.asList(vals_not_in)));
+    }
+
+    @Test
+    void divisionHash_testAddAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertTrue(table.addAll(vals_list));
+    }
+
+    @Test
+    void multiplicationHash_testAddAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertTrue(table.addAll(vals_list));
+    }
+
+    @Test
+    void divisionHash_testAddAllWithNull() {
+        Integer vals[] = { 12, 42, 5, 32, null, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.addAll(vals_list);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testAddAllWithNull() {
+        Integer vals[] = { 12, 42, 5, 32, null, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.addAll(vals_list);
+        });
+    }
+
+    @Test
+    void divisionHash_testAddNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        int val_already_in = 12;
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(val_already_in);
+        assertTrue(table.addAll(vals_list));
+    }
+
+    @Test
+    void multiplicationHash_testAddNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        int val_already_in = 12;
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.add(val_already_in);
+        assertTrue(table.addAll(vals_list));
+    }
+
+    @Test
+    void divisionHash_testRemoveAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.addAll(vals_list);
+        assertTrue(table.removeAll(vals_list));
+    }
+
+    @Test
+    void multiplicationHash_testRemoveAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.addAll(vals_list);
+        assertTrue(table.removeAll(vals_list));
+    }
+
+    @Test
+    void divisionHash_testRemoveAllWithNull() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.addAll(vals_list);
+        Integer vals_to_remove[] = { 12, 42, 5, 32, null, 777, 11 };
+        assertThrows(NullPointerException.class, () -> {
+            table.removeAll(Arrays.asList(vals_to_remove));
+        });
+    }
+
+    @Test
+    void multiplicationHash_testRemoveAllWithNull() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.addAll(vals_list);
+        Integer vals_to_remove[] = { 12, 42, 5, 32, null, 777, 11 };
+        assertThrows(NullPointerException.class, () -> {
+            table.removeAll(Arrays.asList(vals_to_remove));
+        });
+    }
+
+    @Test
+    void divisionHash_testRemoveNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.addAll(vals_list);
+        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
+        assertTrue(table.removeAll(Arrays.asList(vals_not_in)));
+    }
+
+    @Test
+    void multiplicationHash_testRemoveNotAll() {
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        List<Integer> vals_list = Arrays.asList(vals);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.addAll(vals_list);
+        Integer vals_not_in[] = { 12, 42, 5, 32, 777, 11, -51 };
+        assertTrue(table.removeAll(Arrays.asList(vals_not_in)));
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(13);
+        int tableLengthAfterAdd = table.getTable().length;
+        assertEquals(tableLengthBeforeAdd * 2, tableLengthAfterAdd);
+    }
+
+    @Test
+    void divisionHash_testShouldNotResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(12);
+        int tableLengthAfterAdd = table.getTable().length;
+        assertEquals(tableLengthBeforeAdd, tableLengthAfterAdd);
+    }
+
+    @Test
+    void multiplicationHash_testShouldResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(13);
+        int tableLengthAfterAdd = table.getTable().length;
+        assertEquals(tableLengthBeforeAdd * 2, tableLengthAfterAdd);
+    }
+
+    @Test
+    void multiplicationHash_testShouldNotResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(12);
+        int tableLengthAfterAdd = table.getTable().length;
+        assertEquals(tableLengthBeforeAdd, tableLengthAfterAdd);
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void multiplicationHash_testIteratorShouldFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldNotFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        boolean hasThrown = false;
+        while (it.hasNext() && !hasThrown) {
+            try {
+                it.next();
+            } catch (Exception e) {
+                hasThrown = true;
+            }
+        }
+
+        assertFalse(hasThrown);
+    }
+
+    @Test
+    void multiplicationHash_testIteratorShouldNotFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        boolean hasThrown = false;
+        while (it.hasNext() && !hasThrown) {
+            try {
+                it.next();
+            } catch (Exception e) {
+                hasThrown = true;
+            }
+        }
+
+        assertFalse(hasThrown);
+    }
+
+    @Test
+    void divisionHash_testIncrementalResizeKeepsBothTables() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        assertFalse(table.isMigrating());
+        table.add(13);
+        assertEquals(32, table.getTable().length);
+        assertTrue(table.isMigrating());
+        for (int i = 1; i <= 13; i++) {
+            assertTrue(table.contains(i));
+        }
+        assertTrue(table.remove(7));
+        assertFalse(table.contains(7));
+        assertFalse(table.add(12));
+    }
+
+    @Test
+    void divisionHash_testIncrementalResizeCompletesMigration() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(table.add(i));
+        }
+        assertEquals(10000, table.size());
+        int visited = 0;
+        for (Integer i : table) {
+            assertTrue(i >= 0 && i < 10000);
+            visited++;
+        }
+        assertEquals(10000, visited);
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(table.remove(i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testBucketIndexUsesPrimaryHashFunction() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, h -> h);
+        table.add(21);
+        assertNotNull(table.getTable()[21 % 16]);
+        CollisionListResizableHashTable<Integer> constant = new CollisionListResizableHashTable<>(
+                (key, m) -> 0, new Murmur3HashMixer());
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        constant.addAll(Arrays.asList(vals));
+        for (int i = 1; i < constant.getTable().length; i++) {
+            assertNull(constant.getTable()[i]);
+        }
+        assertTrue(constant.containsAll(Arrays.asList(vals)));
+    }
+
+    @Test
+    void multiplicationHash_testMixerIsApplied() {
+        int[] mixed = { 0 };
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, h -> {
+                    mixed[0]++;
+                    return new XXHashMixer().mix(h);
+                });
+        table.add(42);
+        assertTrue(table.contains(42));
+        assertTrue(mixed[0] > 0);
+    }
+
+    private static class CollidingKey {
+        private final int id;
+
+        private final int hash;
+
+        CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+    }
+
+    private static class ComparableCollidingKey extends CollidingKey
+            implements Comparable<ComparableCollidingKey> {
+        private final int id;
+
+        ComparableCollidingKey(int id) {
+            super(id, 0);
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ComparableCollidingKey o) {
+            return Integer.compare(id, o.id);
+        }
+    }
+
+    @Test
+    void divisionHash_testCollidingKeysAreTreeified() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(table.add(new ComparableCollidingKey(i)));
+        }
+        assertFalse(table.add(new ComparableCollidingKey(42)));
+        int treeBins = 0;
+        for (Object bucket : table.getTable()) {
+            if (bucket instanceof CollisionListResizableHashTable.TreeBin) {
+                treeBins++;
+            }
+        }
+        assertEquals(1, treeBins);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(table.contains(new ComparableCollidingKey(i)));
+        }
+        assertFalse(table.contains(new ComparableCollidingKey(500)));
+        for (int i = 0; i < 495; i++) {
+            assertTrue(table.remove(new ComparableCollidingKey(i)));
+        }
+        for (Object bucket : table.getTable()) {
+            assertFalse(bucket instanceof CollisionListResizableHashTable.TreeBin);
+        }
+        assertEquals(5, table.size());
+        int visited = 0;
+        for (CollidingKey key : table) {
+            assertTrue(key.id >= 495);
+            visited++;
+        }
+        assertEquals(5, visited);
+    }
+
+    @Test
+    void multiplicationHash_testNonComparableCollidingKeys() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        // tre soli hashCode: i bucket diventano alberi con chiavi non confrontabili
+        java.util.Set<Integer> expected = RandomSetOperations.check(11, 20000, 600,
+                id -> table.add(new CollidingKey(id, id % 3)), id -> table.remove(new CollidingKey(id, id % 3)),
+                id -> table.contains(new CollidingKey(id, id % 3)), table::size);
+        int visited = 0;
+        for (CollidingKey key : table) {
+            assertTrue(expected.contains(key.id));
+            visited++;
+        }
+        assertEquals(expected.size(), visited);
+    }
+
+    private static class FloodedHashFunction implements SeededPrimaryHashFunction {
+        private final int generation;
+
+        FloodedHashFunction(int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public int hash(int key, int m) {
+            // il seme assegnato dalla tabella manda tutto nello stesso bucket
+            return generation < 2 ? 0 : Math.abs(key % m);
+        }
+
+        @Override
+        public SeededPrimaryHashFunction reseed() {
+            return new FloodedHashFunction(generation + 1);
+        }
+    }
+
+    @Test
+    void seededHash_testEachTableGetsItsOwnSeed() {
+        SeededPrimaryHashFunction shared = new UniversalPrimaryHashFunction();
+        CollisionListResizableHashTable<Integer> table1 = new CollisionListResizableHashTable<>(shared);
+        CollisionListResizableHashTable<Integer> table2 = new CollisionListResizableHashTable<>(shared);
+        assertNotSame(shared, table1.getPhf());
+        assertNotSame(table1.getPhf(), table2.getPhf());
+    }
+
+    @Test
+    void seededHash_testReseedOnLongChain() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                new FloodedHashFunction(0));
+        for (int i = 0; i < 20; i++) {
+            assertTrue(table.add(i));
+        }
+        assertEquals(2, ((FloodedHashFunction) table.getPhf()).generation);
+        for (Object bucket : table.getTable()) {
+            assertFalse(bucket instanceof CollisionListResizableHashTable.TreeBin);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertTrue(table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testStatisticsDisabledByDefault() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertNull(table.getStatistics());
+    }
+
+    @Test
+    void divisionHash_testStatisticsCountLookupsAndResizes() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, h -> h);
+        HashTableStatistics statistics = table.enableStatistics();
+        assertSame(statistics, table.enableStatistics());
+        Integer vals[] = { 0, 16, 32, 1 };
+        table.addAll(Arrays.asList(vals));
+        statistics.reset();
+        assertTrue(table.contains(0));
+        assertTrue(table.contains(32));
+        assertFalse(table.contains(48));
+        assertFalse(table.contains(5));
+        assertEquals(2, statistics.getSuccessfulLookups());
+        assertEquals(2, statistics.getUnsuccessfulLookups());
+        assertEquals(2.0, statistics.getAverageProbesPerSuccessfulLookup(), 1e-9);
+        assertEquals(1.5, statistics.getAverageProbesPerUnsuccessfulLookup(), 1e-9);
+        assertEquals(3, statistics.getMaxChainLength());
+        assertEquals(2.0, statistics.getMeanChainLength(), 1e-9);
+        assertArrayEquals(new int[] { 14, 1, 0, 1 }, statistics.getBucketOccupancyHistogram());
+        for (int i = 100; i < 110; i++) {
+            table.add(i);
+        }
+        assertEquals(1, statistics.getResizeCount());
+        assertTrue(statistics.getTotalResizeTimeNanos() >= statistics.getMaxResizeTimeNanos());
+        table.disableStatistics();
+        assertNull(table.getStatistics());
+    }
+
+    @Test
+    void divisionHash_testStatisticsMBeanRegistration() throws Exception {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(42);
+        table.enableStatistics().register("test-table");
+        javax.management.MBeanServer server = java.lang.management.ManagementFactory
+                .getPlatformMBeanServer();
+        javax.management.ObjectName name = new javax.management.ObjectName(
+                "it.unicam.cs.asdl2223.es10:type=HashTableStatistics,name=\"test-table\"");
+        assertEquals(1, server.getAttribute(name, "Size"));
+        table.disableStatistics();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void divisionHash_testExpectedSizeConstructor() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, 1000);
+        int initialLength = table.getTable().length;
+        assertTrue(initialLength * 0.75 >= 1000);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        assertEquals(initialLength, table.getTable().length);
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, -1);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testAddAllResizesOnce() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash);
+        table.enableStatistics();
+        List<Integer> batch = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            batch.add(i);
+        }
+        assertTrue(table.addAll(batch));
+        assertEquals(1, table.getStatistics().getResizeCount());
+        assertEquals(100000, table.size());
+        table.disableStatistics();
+    }
+
+    @Test
+    void divisionHash_testToArray() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        table.addAll(Arrays.asList(vals));
+        Object[] objects = table.toArray();
+        Arrays.sort(objects);
+        assertArrayEquals(new Object[] { 5, 11, 12, 32, 42, 777 }, objects);
+        Integer[] big = new Integer[8];
+        Arrays.fill(big, -1);
+        Integer[] array = table.toArray(big);
+        assertSame(big, array);
+        assertNull(array[6]);
+        Integer[] small = table.toArray(new Integer[0]);
+        Arrays.sort(small);
+        assertArrayEquals(new Integer[] { 5, 11, 12, 32, 42, 777 }, small);
+    }
+
+    @Test
+    void divisionHash_testRetainAll() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        table.addAll(Arrays.asList(vals));
+        assertTrue(table.retainAll(Arrays.asList(42, 5, -1)));
+        assertEquals(2, table.size());
+        assertTrue(table.contains(42));
+        assertTrue(table.contains(5));
+        assertFalse(table.contains(12));
+        assertFalse(table.retainAll(Arrays.asList(42, 5)));
+        assertThrows(NullPointerException.class, () -> {
+            table.retainAll(null);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testRemoveAllLargerCollection() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash, true);
+        Set<Integer> toRemove = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            table.add(i);
+            toRemove.add(i * 2);
+        }
+        assertTrue(table.removeAll(toRemove));
+        assertEquals(2500, table.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 1, table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testRetainAllOnTreeBin() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(divisionHash);
+        List<CollidingKey> keep = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            CollidingKey key = new CollidingKey(i, 7);
+            table.add(key);
+            if (i < 3) {
+                keep.add(key);
+            }
+        }
+        assertTrue(table.retainAll(keep));
+        assertEquals(3, table.size());
+        for (CollidingKey key : keep) {
+            assertTrue(table.contains(key));
+        }
+        for (Object bucket : table.getTable()) {
+            assertFalse(bucket instanceof CollisionListResizableHashTable.TreeBin);
+        }
+    }
+
+    @Test
+    void divisionHash_testSpliteratorCharacteristics() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Spliterator<Integer> root = table.spliterator();
+        assertTrue(root.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.NONNULL));
+        assertEquals(1000, root.estimateSize());
+        Spliterator<Integer> prefix = root.trySplit();
+        assertNotNull(prefix);
+        assertFalse(root.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(prefix.hasCharacteristics(Spliterator.DISTINCT | Spliterator.NONNULL));
+        Set<Integer> visited = new HashSet<>();
+        prefix.forEachRemaining(visited::add);
+        while (root.tryAdvance(visited::add)) {
+        }
+        assertEquals(1000, visited.size());
+    }
+
+    @Test
+    void multiplicationHash_testParallelStreamDuringMigration() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash, true);
+        long expected = 0;
+        for (int i = 0; i < 100000; i++) {
+            table.add(i);
+            expected += i;
+        }
+        table.add(100000);
+        expected += 100000;
+        assertTrue(table.isMigrating());
+        assertEquals(expected, table.stream().parallel().mapToLong(Integer::longValue).sum());
+        assertEquals(100001, table.stream().parallel().count());
+    }
+
+    @Test
+    void divisionHash_testForEach() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        table.forEach(visited::add);
+        assertEquals(100, visited.size());
+        assertThrows(ConcurrentModificationException.class, () -> {
+            table.forEach(i -> {
+                if (i == 50) {
+                    table.add(1000);
+                }
+            });
+        });
+    }
+
+    @Test
+    void divisionHash_testShrinkAfterMassRemoval() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, 0, 0.75,
+                0.25);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+        }
+        int peak = table.getTable().length;
+        for (int i = 0; i < 9900; i++) {
+            assertTrue(table.remove(i));
+        }
+        assertTrue(table.getTable().length < peak);
+        assertTrue(table.getTable().length >= 16);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i >= 9900, table.contains(i));
+        }
+        assertEquals(100, table.size());
+    }
+
+    @Test
+    void multiplicationHash_testRetainAllShrinks() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash,
+                new Murmur3HashMixer(), false, 0, 0.75, 0.1);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+        }
+        table.retainAll(Arrays.asList(1, 2, 3));
+        assertEquals(16, table.getTable().length);
+        assertEquals(3, table.size());
+        assertTrue(table.contains(2));
+    }
+
+    @Test
+    void divisionHash_testNoShrinkByDefault() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        int peak = table.getTable().length;
+        for (int i = 0; i < 1000; i++) {
+            table.remove(i);
+        }
+        assertEquals(peak, table.getTable().length);
+        table.trimToSize();
+        assertEquals(16, table.getTable().length);
+        assertFalse(table.isMigrating());
+    }
+
+    @Test
+    void divisionHash_testShrinkStopsAtInitialCapacity() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, 1000, 0.75,
+                0.25);
+        int initial = table.getTable().length;
+        for (int i = 0; i < 5000; i++) {
+            table.add(i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            table.remove(i);
+        }
+        assertEquals(initial, table.getTable().length);
+        table.add(1);
+        table.clear();
+        assertEquals(initial, table.getTable().length);
+    }
+
+    @Test
+    void divisionHash_testInvalidFactors() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, 0, 0, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, 0, 0.75, 0.5);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, 0, Double.NaN, 0);
+        });
+    }
+
+    @Test
+    void divisionHash_testResizeDoesNotCallHashCode() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(divisionHash);
+        int[] counters = new int[2];
+        for (int i = 0; i < 1000; i++) {
+            table.add(new CountingKey(i, counters));
+        }
+        // una sola chiamata a hashCode per add: né i ridimensionamenti né la ricerca iniziale ne fanno altre
+        assertEquals(1000, counters[0]);
+    }
+
+    @Test
+    void divisionHash_testEqualsOnlyOnMatchingHash() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(divisionHash);
+        int[] counters = new int[2];
+        for (int i = 0; i < 1000; i++) {
+            table.add(new CountingKey(i, counters));
+        }
+        counters[1] = 0;
+        for (int i = 1000; i < 2000; i++) {
+            assertFalse(table.contains(new CountingKey(i, counters)));
+        }
+        assertEquals(0, counters[1]);
+        assertTrue(table.contains(new CountingKey(7, counters)));
+        assertEquals(1, counters[1]);
+    }
+
+    private static class CountingKey {
+        private final int id;
+
+        // counters[0] conta le chiamate a hashCode, counters[1] quelle a equals
+        private final int[] counters;
+
+        CountingKey(int id, int[] counters) {
+            this.id = id;
+            this.counters = counters;
+        }
+
+        @Override
+        public int hashCode() {
+            counters[0]++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            counters[1]++;
+            return obj instanceof CountingKey && ((CountingKey) obj).id == id;
+        }
+    }
+
+    @Test
+    void divisionHash_testBloomFilterStaysConsistent() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, true);
+        table.add(-1);
+        CountingBloomFilter filter = table.enableBloomFilter(0.01);
+        assertTrue(table.contains(-1));
+        for (int i = 0; i < 20000; i++) {
+            table.add(i);
+        }
+        for (int i = 0; i < 20000; i += 2) {
+            table.remove(i);
+        }
+        table.retainAll(Arrays.asList(-1, 1, 3, 5, 7, 9));
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(i < 10 && i % 2 == 1, table.contains(i));
+        }
+        assertTrue(table.contains(-1));
+        assertNotSame(filter, table.getBloomFilter());
+        table.getBloomFilter().resetCounters();
+        for (int i = 100000; i < 110000; i++) {
+            assertFalse(table.contains(i));
+        }
+        assertTrue(table.getBloomFilter().getHitRatio() > 0.95);
+        table.clear();
+        assertFalse(table.contains(-1));
+        table.add(-1);
+        assertTrue(table.contains(-1));
+    }
+
+    @Test
+    void multiplicationHash_testBloomFilterSkipsTableOnMiss() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(multiplicationHash);
+        int[] counters = new int[2];
+        table.enableBloomFilter(0.001);
+        for (int i = 0; i < 1000; i++) {
+            table.add(new CountingKey(i, counters));
+        }
+        CountingBloomFilter filter = table.getBloomFilter();
+        for (int i = 1000; i < 2000; i++) {
+            assertFalse(table.contains(new CountingKey(i, counters)));
+        }
+        assertEquals(1000, filter.getQueries());
+        assertEquals(1000, filter.getDefiniteMisses() + filter.getFalsePositives());
+        table.disableBloomFilter();
+        assertNull(table.getBloomFilter());
+        assertTrue(table.contains(new CountingKey(5, counters)));
+    }
+
+    @Test
+    void divisionHash_testAddRejectsDuplicatesDuringMigration() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(divisionHash, true);
+        int[] counters = new int[2];
+        for (int i = 0; i < 13; i++) {
+            table.add(new CountingKey(i, counters));
+        }
+        assertTrue(table.isMigrating());
+        counters[1] = 0;
+        for (int i = 0; i < 13; i++) {
+            assertFalse(table.add(new CountingKey(i, counters)));
+        }
+        // un solo passaggio sul bucket: equals viene chiamato una volta per chiave, sul nodo giusto
+        assertEquals(13, counters[1]);
+        assertEquals(13, table.size());
+    }
+
+    @Test
+    void divisionHash_testDuplicateAddsDuringMigrationKeepIteratorsValid() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, true);
+        for (int i = 0; i < 13; i++) {
+            table.add(i);
+        }
+        assertTrue(table.isMigrating());
+        List<Integer> visited = new ArrayList<>();
+        for (Integer i : table) {
+            assertFalse(table.add(i));
+            visited.add(i);
+        }
+        List<Integer> forEachVisited = new ArrayList<>();
+        table.forEach(i -> {
+            assertFalse(table.add(i));
+            forEachVisited.add(i);
+        });
+        // un duplicato non sposta bucket: la migrazione è ancora a metà
+        assertTrue(table.isMigrating());
+        assertEquals(13, visited.size());
+        assertEquals(13, new HashSet<>(visited).size());
+        assertEquals(13, forEachVisited.size());
+        assertEquals(13, new HashSet<>(forEachVisited).size());
+    }
+
+    @Test
+    void multiplicationHash_testResizeEventMeasuresTheResize() throws Exception {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash);
+        for (int i = 0; i < 100000; i++) {
+            table.add(i);
+        }
+        int oldCapacity = table.getTable().length;
+        table.enableStatistics();
+        // addAll ridimensiona una volta sola, spostando i 100000 elementi già presenti
+        List<Integer> batch = new ArrayList<>();
+        for (int i = 100000; i < 400000; i++) {
+            batch.add(i);
+        }
+        java.nio.file.Path dump = java.nio.file.Files.createTempFile("resize", ".jfr");
+        try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+            recording.enable("it.unicam.cs.asdl2223.es10.HashTableResize").withThreshold(java.time.Duration.ZERO);
+            recording.start();
+            table.addAll(batch);
+            recording.stop();
+            recording.dump(dump);
+            List<jdk.jfr.consumer.RecordedEvent> events = jdk.jfr.consumer.RecordingFile.readAllEvents(dump);
+            assertEquals(1, events.size());
+            jdk.jfr.consumer.RecordedEvent event = events.get(0);
+            assertEquals(oldCapacity, event.getInt("oldCapacity"));
+            assertEquals(table.getTable().length, event.getInt("newCapacity"));
+            // la durata copre lo spostamento dei bucket, non solo la registrazione dell'evento
+            assertTrue(event.getDuration().toNanos() * 2 >= table.getStatistics().getMaxResizeTimeNanos(),
+                    event.getDuration() + " vs " + table.getStatistics().getMaxResizeTimeNanos() + " ns");
+        } finally {
+            java.nio.file.Files.deleteIfExists(dump);
+            table.disableStatistics();
+        }
+    }
+
+    @Test
+    void divisionHash_testShrinkHonoursShrinkFactor() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash, 0, 0.75,
+                0.3);
+        for (int i = 0; i < 1500; i++) {
+            table.add(i);
+        }
+        assertEquals(2048, table.getTable().length);
+        // la soglia di restringimento è 2048 * 0.3 = 614
+        int i = 0;
+        while (table.size() > 614) {
+            assertTrue(table.remove(i++));
+        }
+        assertEquals(2048, table.getTable().length);
+        assertTrue(table.remove(i++));
+        assertEquals(1024, table.getTable().length);
+        for (int j = 0; j < 1500; j++) {
+            assertEquals(j >= i, table.contains(j));
+        }
+    }
+
+}
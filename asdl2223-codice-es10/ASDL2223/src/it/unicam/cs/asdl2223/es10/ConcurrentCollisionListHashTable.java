@@ -0,0 +1,537 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabella hash concorrente a liste di collisione con ridimensionamento incrementale condiviso, sul
+ * modello di ConcurrentHashMap.transfer. Un bucket vuoto si riempie con un compareAndSet, un
+ * bucket non vuoto si modifica tenendo il lock sul suo primo nodo; le ricerche non prendono lock.
+ *
+ * Durante un ridimensionamento i bucket della vecchia tabella vengono spostati a blocchi di
+ * TRANSFER_STRIDE: ogni bucket spostato viene sostituito da un nodo di inoltro che punta alla
+ * nuova tabella. Chi legge segue l'inoltro, chi scrive su un bucket già spostato prima aiuta a
+ * spostare un blocco e poi lavora sulla nuova tabella. La funzione primaria non divide un bucket
+ * in due metà prevedibili, quindi i nodi spostati vengono copiati uno per uno nella nuova tabella
+ * con le stesse regole di inserimento: i lettori fermi sulla vecchia lista la vedono integra.
+ */
+public class ConcurrentCollisionListHashTable<E> implements Set<E> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    // bucket spostati da un thread prima di prenotarne altri
+    private static final int TRANSFER_STRIDE = 16;
+    // resizeState: 0 nessun ridimensionamento, n > 0 thread al lavoro, -1 pubblicazione della nuova tabella
+    private static final int COMMITTING = -1;
+    private static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Object[].class);
+    private volatile Object[] table;
+    private volatile Object[] nextTable;
+    private final AtomicInteger transferIndex;
+    private final AtomicInteger resizeState;
+    private final LongAdder count;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = new Murmur3HashMixer();
+        this.table = new Object[INITIAL_CAPACITY];
+        this.transferIndex = new AtomicInteger();
+        this.resizeState = new AtomicInteger();
+        this.count = new LongAdder();
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> bucket(Object[] t, int index) {
+        return (Node<E>) BUCKET.getVolatile(t, index);
+    }
+
+    private static boolean casBucket(Object[] t, int index, Node<?> expected, Node<?> update) {
+        return BUCKET.compareAndSet(t, index, expected, update);
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(count.sum(), Integer.MAX_VALUE));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(element);
+        Object[] t = table;
+        while (true) {
+            Node<E> node = bucket(t, phf.hash(h, t.length));
+            if (node instanceof ForwardingNode) {
+                t = ((ForwardingNode<E>) node).nextTable;
+                continue;
+            }
+            for (; node != null; node = node.next) {
+                if (node.hash == h && node.item.equals(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(e);
+        Object[] t = table;
+        while (true) {
+            int index = phf.hash(h, t.length);
+            Node<E> head = bucket(t, index);
+            if (head == null) {
+                if (casBucket(t, index, null, new Node<>(e, h, null))) {
+                    break;
+                }
+            } else if (head instanceof ForwardingNode) {
+                helpTransfer();
+                t = ((ForwardingNode<E>) head).nextTable;
+            } else {
+                synchronized (head) {
+                    // il primo nodo può essere cambiato, o il bucket spostato, prima di avere il lock
+                    if (bucket(t, index) != head) {
+                        continue;
+                    }
+                    Node<E> last = head;
+                    for (Node<E> node = head; node != null; last = node, node = node.next) {
+                        if (node.hash == h && node.item.equals(e)) {
+                            return false;
+                        }
+                    }
+                    last.next = new Node<>(e, h, null);
+                }
+                break;
+            }
+        }
+        count.increment();
+        Object[] current = table;
+        if (count.sum() > current.length * LOAD_FACTOR && current.length < MAXIMUM_CAPACITY) {
+            startTransfer(current);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(o);
+        Object[] t = table;
+        while (true) {
+            int index = phf.hash(h, t.length);
+            Node<E> head = bucket(t, index);
+            if (head == null) {
+                return false;
+            }
+            if (head instanceof ForwardingNode) {
+                helpTransfer();
+                t = ((ForwardingNode<E>) head).nextTable;
+                continue;
+            }
+            synchronized (head) {
+                if (bucket(t, index) != head) {
+                    continue;
+                }
+                Node<E> prev = null;
+                for (Node<E> node = head; node != null; prev = node, node = node.next) {
+                    if (node.hash == h && node.item.equals(o)) {
+                        // il nodo tolto conserva next, così un lettore fermo su di lui prosegue
+                        if (prev == null) {
+                            BUCKET.setVolatile(t, index, node.next);
+                        } else {
+                            prev.next = node.next;
+                        }
+                        count.decrement();
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Avvia il ridimensionamento della tabella t, se nessuno lo ha già fatto, e partecipa allo
+     * spostamento.
+     */
+    private void startTransfer(Object[] t) {
+        if (!resizeState.compareAndSet(0, 1)) {
+            helpTransfer();
+            return;
+        }
+        if (table != t || nextTable != null) {
+            // un altro ridimensionamento si è concluso nel frattempo
+            leaveTransfer();
+            return;
+        }
+        Object[] nt = new Object[t.length * 2];
+        transferIndex.set(t.length);
+        nextTable = nt;
+        transfer(t, nt);
+        leaveTransfer();
+    }
+
+    /**
+     * Se è in corso un ridimensionamento si unisce ai thread che spostano i bucket.
+     */
+    private void helpTransfer() {
+        int state;
+        do {
+            state = resizeState.get();
+            if (state <= 0) {
+                return;
+            }
+        } while (!resizeState.compareAndSet(state, state + 1));
+        // finché questo thread è contato la nuova tabella non può essere pubblicata
+        Object[] t = table;
+        Object[] nt = nextTable;
+        if (nt != null) {
+            transfer(t, nt);
+        }
+        leaveTransfer();
+    }
+
+    /**
+     * L'ultimo thread che esce pubblica la nuova tabella: tutti i blocchi sono stati prenotati,
+     * e ogni thread esce solo dopo aver finito i propri.
+     */
+    private void leaveTransfer() {
+        while (true) {
+            int state = resizeState.get();
+            if (state == 1 && nextTable != null && transferIndex.get() <= 0) {
+                if (resizeState.compareAndSet(1, COMMITTING)) {
+                    table = nextTable;
+                    nextTable = null;
+                    resizeState.set(0);
+                    return;
+                }
+            } else if (resizeState.compareAndSet(state, state - 1)) {
+                return;
+            }
+        }
+    }
+
+    private void transfer(Object[] t, Object[] nt) {
+        ForwardingNode<E> forwarding = new ForwardingNode<>(nt);
+        while (true) {
+            int end = transferIndex.get();
+            if (end <= 0) {
+                return;
+            }
+            int start = Math.max(0, end - TRANSFER_STRIDE);
+            if (!transferIndex.compareAndSet(end, start)) {
+                continue;
+            }
+            for (int index = end - 1; index >= start; index--) {
+                moveBucket(t, index, nt, forwarding);
+            }
+        }
+    }
+
+    private void moveBucket(Object[] t, int index, Object[] nt, ForwardingNode<E> forwarding) {
+        while (true) {
+            Node<E> head = bucket(t, index);
+            if (head == null) {
+                if (casBucket(t, index, null, forwarding)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (head) {
+                if (bucket(t, index) != head) {
+                    continue;
+                }
+                for (Node<E> node = head; node != null; node = node.next) {
+                    insertMoved(nt, new Node<>(node.item, node.hash, null));
+                }
+                BUCKET.setVolatile(t, index, forwarding);
+                return;
+            }
+        }
+    }
+
+    // la nuova tabella non contiene inoltri e non ha già l'elemento: basta inserire
+    private void insertMoved(Object[] nt, Node<E> moved) {
+        int index = phf.hash(moved.hash, nt.length);
+        while (true) {
+            Node<E> head = bucket(nt, index);
+            if (head == null) {
+                if (casBucket(nt, index, null, moved)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (head) {
+                if (bucket(nt, index) == head) {
+                    moved.next = head.next;
+                    head.next = moved;
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : this) {
+            if (!c.contains(element) && remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Rimuove gli elementi uno alla volta: non è atomica rispetto agli inserimenti concorrenti.
+     */
+    @Override
+    public void clear() {
+        for (E element : this) {
+            remove(element);
+        }
+    }
+
+    protected static class Node<E> {
+        protected final E item;
+
+        protected final int hash;
+
+        protected volatile Node<E> next;
+
+        Node(E item, int hash, Node<E> next) {
+            this.item = item;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Prende il posto di un bucket già spostato.
+     */
+    protected static final class ForwardingNode<E> extends Node<E> {
+        protected final Object[] nextTable;
+
+        ForwardingNode(Object[] nextTable) {
+            super(null, 0, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * Percorre i nodi di una tabella seguendo i nodi di inoltro verso la nuova tabella, senza
+     * aspettare la fine del ridimensionamento, come ConcurrentHashMap.Traverser. La funzione
+     * primaria non divide un bucket in due metà prevedibili, quindi i bucket già spostati vengono
+     * annotati e, finita la vecchia tabella, la nuova viene percorsa per intero restituendo solo i
+     * nodi che nella vecchia stavano in uno di quei bucket: gli altri sono già stati visti sulle
+     * vecchie liste, che restano integre. Ogni ridimensionamento incontrato aggiunge un filtro.
+     */
+    static final class Traverser<E> {
+        private final PrimaryHashFunction phf;
+        private Object[] currentTable;
+        private int currentIndex;
+        private Node<E> currentNode;
+        // nuova tabella e bucket già spostati della tabella che si sta percorrendo
+        private Object[] forwardedTo;
+        private BitSet forwarded;
+        // per ogni tabella abbandonata, i bucket che erano già stati spostati quando li si è letti
+        private final List<Object[]> abandonedTables;
+        private final List<BitSet> forwardedBuckets;
+
+        Traverser(Object[] table, PrimaryHashFunction phf) {
+            this.phf = phf;
+            this.currentTable = table;
+            this.abandonedTables = new ArrayList<>();
+            this.forwardedBuckets = new ArrayList<>();
+        }
+
+        /**
+         * Restituisce il nodo successivo, oppure null alla fine.
+         */
+        Node<E> advance() {
+            while (true) {
+                while (currentNode != null) {
+                    Node<E> node = currentNode;
+                    currentNode = node.next;
+                    if (accepts(node)) {
+                        return node;
+                    }
+                }
+                if (currentIndex < currentTable.length) {
+                    Node<E> head = bucket(currentTable, currentIndex);
+                    if (head instanceof ForwardingNode) {
+                        if (forwarded == null) {
+                            forwarded = new BitSet(currentTable.length);
+                            forwardedTo = ((ForwardingNode<E>) head).nextTable;
+                        }
+                        forwarded.set(currentIndex);
+                    } else {
+                        currentNode = head;
+                    }
+                    currentIndex++;
+                } else if (forwarded != null) {
+                    abandonedTables.add(currentTable);
+                    forwardedBuckets.add(forwarded);
+                    currentTable = forwardedTo;
+                    currentIndex = 0;
+                    forwarded = null;
+                    forwardedTo = null;
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private boolean accepts(Node<E> node) {
+            for (int i = 0; i < abandonedTables.size(); i++) {
+                if (!forwardedBuckets.get(i).get(phf.hash(node.hash, abandonedTables.get(i).length))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iteratore debolmente consistente: non aspetta i ridimensionamenti in corso e vede una volta
+     * sola ogni elemento presente per tutta la durata dell'iterazione.
+     */
+    private class Itr implements Iterator<E> {
+        private final Traverser<E> traverser;
+        private Node<E> nextNode;
+        private E lastReturned;
+
+        private Itr() {
+            traverser = new Traverser<>(table, phf);
+            nextNode = traverser.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public E next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException("No more elements");
+            }
+            lastReturned = nextNode.item;
+            nextNode = traverser.advance();
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            ConcurrentCollisionListHashTable.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
@@ -0,0 +1,150 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.ForwardingNode;
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.Node;
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.Traverser;
+
+class ConcurrentCollisionListHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new ConcurrentCollisionListHashTable<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new ConcurrentCollisionListHashTable<>(multiplicationHash));
+    }
+
+    private void addContainsRemove(ConcurrentCollisionListHashTable<Integer> table) {
+        Set<Integer> expected = RandomSetOperations.check(table, 29, 50000, 4000);
+        RandomSetOperations.assertIteratesOnce(expected, table);
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(divisionHash);
+        for (int i = 0; i < 12; i++) {
+            table.add(i);
+        }
+        assertEquals(16, table.getTable().length);
+        table.add(12);
+        assertEquals(32, table.getTable().length);
+        for (int i = 0; i <= 12; i++) {
+            assertTrue(table.contains(i));
+        }
+    }
+
+    @Test
+    void multiplicationHash_testConcurrentAddsDuringResize() throws InterruptedException {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(multiplicationHash);
+        AtomicBoolean missing = new AtomicBoolean();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            int first = t;
+            // ogni thread rilegge subito le proprie chiavi, anche mentre i bucket vengono spostati
+            workers[t] = new Thread(() -> {
+                for (int i = first; i < 200000; i += workers.length) {
+                    table.add(i);
+                    if (!table.contains(i)) {
+                        missing.set(true);
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertFalse(missing.get());
+        assertEquals(200000, table.size());
+        for (int i = 0; i < 200000; i++) {
+            assertTrue(table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testIteratorSeesEachElementOnceAcrossResizes() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(divisionHash);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        int n = 1000;
+        for (Integer i : table) {
+            // gli inserimenti fanno raddoppiare la tabella più volte durante l'iterazione
+            for (int k = 0; k < 20 && n < 20000; k++) {
+                table.add(n++);
+            }
+            assertTrue(visited.add(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(visited.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testTraverserFollowsUnfinishedResizes() {
+        // ridimensionamenti mai conclusi: metà dei bucket di t è stata spostata in nt, un quarto
+        // di quelli di nt in nt2, e nessuna delle nuove tabelle è stata pubblicata
+        Object[] t = new Object[16];
+        Object[] nt = new Object[32];
+        Object[] nt2 = new Object[64];
+        for (int i = 0; i < 16; i += 2) {
+            t[i] = new ForwardingNode<Integer>(nt);
+        }
+        for (int i = 0; i < 32; i += 4) {
+            nt[i] = new ForwardingNode<Integer>(nt2);
+        }
+        for (int h = 0; h < 1000; h++) {
+            // ogni elemento sta nella prima tabella in cui il suo bucket non è stato spostato
+            Object[] target = t;
+            while (target[divisionHash.hash(h, target.length)] instanceof ForwardingNode) {
+                target = ((ForwardingNode<?>) target[divisionHash.hash(h, target.length)]).nextTable;
+            }
+            int index = divisionHash.hash(h, target.length);
+            @SuppressWarnings("unchecked")
+            Node<Integer> head = (Node<Integer>) target[index];
+            target[index] = new Node<>(h, h, head);
+        }
+        Traverser<Integer> traverser = new Traverser<>(t, divisionHash);
+        Set<Integer> visited = new HashSet<>();
+        for (Node<Integer> node = traverser.advance(); node != null; node = traverser.advance()) {
+            assertTrue(visited.add(node.item));
+        }
+        assertEquals(1000, visited.size());
+    }
+
+    @Test
+    void multiplicationHash_testRetainAllAfterResizes() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(multiplicationHash);
+        Set<Integer> multiplesOfSeven = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+            if (i % 7 == 0) {
+                multiplesOfSeven.add(i);
+            }
+        }
+        // retainAll rimuove mentre scorre una tabella già raddoppiata più volte
+        assertTrue(table.retainAll(multiplesOfSeven));
+        assertFalse(table.retainAll(multiplesOfSeven));
+        assertEquals(multiplesOfSeven.size(), table.size());
+        assertEquals(multiplesOfSeven, new HashSet<>(Arrays.asList(table.toArray(new Integer[0]))));
+    }
+
+}
@@ -0,0 +1,225 @@
+package it.unicam.cs.asdl2223.es10;
+
+/**
+ * Filtro di Bloom a contatori, suddiviso in blocchi da 128 contatori di 4 bit (64 byte, una linea
+ * di cache): tutti i contatori di un elemento stanno nello stesso blocco, quindi ogni operazione
+ * legge una sola linea. I contatori permettono la rimozione; un contatore arrivato a 15 resta
+ * fermo, per non introdurre falsi negativi.
+ *
+ * Il filtro lavora su hash a 32 bit già rimescolati, come quelli memorizzati nei nodi della tabella.
+ */
+public class CountingBloomFilter {
+    private static final int COUNTERS_PER_BLOCK = 128;
+    private static final int WORDS_PER_BLOCK = COUNTERS_PER_BLOCK / 16;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final int SECOND_HASH_SEED = 0x9E3779B9;
+    private static final int MAX_HASH_COUNT = 16;
+    private static final int LCG_MULTIPLIER = 0x2C9277B5;
+    private static final int LCG_INCREMENT = 0xAC564B05;
+    private static final int POSITION_SHIFT = 32 - 7;
+    private final int expectedElements;
+    private final double falsePositiveRate;
+    private final int hashCount;
+    private final int blocks;
+    private final long[] words;
+    private final HashMixer mixer;
+    private long queries;
+    private long definiteMisses;
+    private long falsePositives;
+
+    /**
+     * Crea un filtro dimensionato perché, con expectedElements elementi, la probabilità di falso
+     * positivo sia circa falsePositiveRate.
+     */
+    public CountingBloomFilter(int expectedElements, double falsePositiveRate) {
+        if (expectedElements < 0) {
+            throw new IllegalArgumentException("Expected elements cannot be negative: " + expectedElements);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        this.expectedElements = expectedElements;
+        this.falsePositiveRate = falsePositiveRate;
+        // si parte dal dimensionamento classico e si aggiungono contatori finché la stima per il
+        // filtro a blocchi, che tiene conto dei blocchi più carichi della media, raggiunge l'obiettivo
+        double ln2 = Math.log(2);
+        int n = Math.max(1, expectedElements);
+        double countersPerElement = -Math.log(falsePositiveRate) / (ln2 * ln2);
+        int bestBlocks;
+        int bestHashCount;
+        while (true) {
+            long counters = (long) Math.ceil(n * countersPerElement);
+            bestBlocks = (int) Math.min(Integer.MAX_VALUE / WORDS_PER_BLOCK,
+                    Math.max(1, (counters + COUNTERS_PER_BLOCK - 1) / COUNTERS_PER_BLOCK));
+            bestHashCount = 1;
+            double best = 1;
+            for (int k = 1; k <= MAX_HASH_COUNT; k++) {
+                double estimate = estimateFalsePositiveRate((double) n / bestBlocks, k);
+                if (estimate < best) {
+                    best = estimate;
+                    bestHashCount = k;
+                }
+            }
+            if (best <= falsePositiveRate || bestBlocks == Integer.MAX_VALUE / WORDS_PER_BLOCK) {
+                break;
+            }
+            countersPerElement *= 1.05;
+        }
+        this.blocks = bestBlocks;
+        this.hashCount = bestHashCount;
+        this.words = new long[blocks * WORDS_PER_BLOCK];
+        this.mixer = new Murmur3HashMixer();
+    }
+
+    /**
+     * Probabilità di falso positivo di un filtro a blocchi con in media elementsPerBlock elementi
+     * per blocco e k contatori per elemento: il carico dei blocchi segue una distribuzione di Poisson.
+     */
+    private static double estimateFalsePositiveRate(double elementsPerBlock, int k) {
+        double total = 0;
+        double poisson = Math.exp(-elementsPerBlock);
+        int limit = (int) (elementsPerBlock + 10 * Math.sqrt(elementsPerBlock) + 10);
+        for (int j = 0; j <= limit; j++) {
+            if (j > 0) {
+                poisson *= elementsPerBlock / j;
+            }
+            double fill = 1 - Math.pow(1 - 1.0 / COUNTERS_PER_BLOCK, (double) k * j);
+            total += poisson * Math.pow(fill, k);
+        }
+        return total;
+    }
+
+    private int blockStart(int hash) {
+        return (int) (((hash & 0xFFFFFFFFL) * blocks) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    // le posizioni nel blocco sono i 7 bit alti di un generatore congruenziale seminato con questo
+    // hash: una progressione aritmetica modulo 128 le renderebbe troppo correlate tra elementi
+    private int secondHash(int hash) {
+        return mixer.mix(hash ^ SECOND_HASH_SEED);
+    }
+
+    public void add(int hash) {
+        int start = blockStart(hash);
+        int x = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            x = x * LCG_MULTIPLIER + LCG_INCREMENT;
+            int position = x >>> POSITION_SHIFT;
+            int word = start + (position >>> 4);
+            int shift = (position & 15) << 2;
+            long counter = (words[word] >>> shift) & COUNTER_MASK;
+            if (counter < COUNTER_MASK) {
+                words[word] += 1L << shift;
+            }
+        }
+    }
+
+    /**
+     * Toglie un elemento aggiunto in precedenza. Rimuovere un hash mai aggiunto rende il filtro
+     * inconsistente.
+     */
+    public void remove(int hash) {
+        int start = blockStart(hash);
+        int x = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            x = x * LCG_MULTIPLIER + LCG_INCREMENT;
+            int position = x >>> POSITION_SHIFT;
+            int word = start + (position >>> 4);
+            int shift = (position & 15) << 2;
+            long counter = (words[word] >>> shift) & COUNTER_MASK;
+            if (counter > 0 && counter < COUNTER_MASK) {
+                words[word] -= 1L << shift;
+            }
+        }
+    }
+
+    /**
+     * Restituisce false solo se l'hash non è sicuramente mai stato aggiunto.
+     */
+    public boolean mightContain(int hash) {
+        queries++;
+        if (!probe(hash)) {
+            definiteMisses++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Come mightContain, ma senza aggiornare i contatori delle interrogazioni: usato dai controlli
+     * interni della tabella, per esempio in add.
+     */
+    boolean probe(int hash) {
+        int start = blockStart(hash);
+        int x = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            x = x * LCG_MULTIPLIER + LCG_INCREMENT;
+            int position = x >>> POSITION_SHIFT;
+            if (((words[start + (position >>> 4)] >>> ((position & 15) << 2)) & COUNTER_MASK) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra che un mightContain positivo non corrispondeva a un elemento presente.
+     */
+    void recordFalsePositive() {
+        falsePositives++;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(words, 0);
+    }
+
+    public int getExpectedElements() {
+        return this.expectedElements;
+    }
+
+    public double getFalsePositiveRate() {
+        return this.falsePositiveRate;
+    }
+
+    public int getHashCount() {
+        return this.hashCount;
+    }
+
+    public long getSizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public long getQueries() {
+        return this.queries;
+    }
+
+    public long getDefiniteMisses() {
+        return this.definiteMisses;
+    }
+
+    public long getFalsePositives() {
+        return this.falsePositives;
+    }
+
+    /**
+     * Frazione delle interrogazioni risolte dal solo filtro, senza consultare la tabella.
+     */
+    public double getHitRatio() {
+        return queries == 0 ? 0 : (double) definiteMisses / queries;
+    }
+
+    /**
+     * Frazione dei negativi veri che il filtro non ha saputo escludere.
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = definiteMisses + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+
+    public void resetCounters() {
+        queries = 0;
+        definiteMisses = 0;
+        falsePositives = 0;
+    }
+
+}
@@ -0,0 +1,74 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+
+    private HashMixer mixer = new Murmur3HashMixer();
+
+    @Test
+    void testNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(mixer.mix(i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain(mixer.mix(i)));
+        }
+        assertEquals(0, filter.getDefiniteMisses());
+    }
+
+    @Test
+    void testFalsePositiveRateIsNearTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(mixer.mix(i));
+        }
+        int positives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContain(mixer.mix(i))) {
+                positives++;
+            }
+        }
+        assertTrue(positives < 100000 * 0.015, "false positives: " + positives);
+        assertTrue(filter.getHitRatio() > 0.98);
+    }
+
+    @Test
+    void testRemove() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        Random random = new Random(19);
+        int[] hashes = new int[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextInt();
+            filter.add(hashes[i]);
+        }
+        for (int i = 0; i < hashes.length; i += 2) {
+            filter.remove(hashes[i]);
+        }
+        int stillPositive = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i % 2 == 1) {
+                assertTrue(filter.mightContain(hashes[i]));
+            } else if (filter.mightContain(hashes[i])) {
+                stillPositive++;
+            }
+        }
+        assertTrue(stillPositive < 50);
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CountingBloomFilter(100, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CountingBloomFilter(-1, 0.01);
+        });
+    }
+
+}
@@ -0,0 +1,451 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+
+/**
+ * Insieme basato su cuckoo hashing: ogni elemento può stare solo in uno degli slot dei bucket
+ * indicati dalle funzioni hash primarie, oppure in un piccolo stash. Una ricerca esamina quindi al
+ * più (numero di funzioni) * BUCKET_SIZE + STASH_SIZE celle, anche nel caso pessimo.
+ */
+public class CuckooHashTable<E> implements Set<E> {
+    private static final int INITIAL_BUCKETS = 4;
+    private static final int BUCKET_SIZE = 4;
+    private static final int STASH_SIZE = 4;
+    private static final double LOAD_FACTOR = 0.9;
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_REHASHES = 3;
+    private static final int MAX_GROWTH = 64;
+    private int size;
+    private int buckets;
+    private Object[] table;
+    private Object[] stash;
+    private int stashSize;
+    private final PrimaryHashFunction[] phfs;
+    // semi distinti rendono indipendenti le posizioni anche con funzioni primarie uguali
+    private final int[] seeds;
+    private final HashMixer mixer;
+    private final SplittableRandom random;
+    // celle visitate dagli spostamenti, per annullarli quando l'inserimento fallisce
+    private final int[] kickPath;
+    private int modCount;
+
+    private int getCurrentThreshold() {
+        return (int) (buckets * BUCKET_SIZE * LOAD_FACTOR);
+    }
+
+    public CuckooHashTable(PrimaryHashFunction... phfs) {
+        if (phfs == null) {
+            throw new NullPointerException("Primary hash functions cannot be null");
+        }
+        if (phfs.length < 2) {
+            throw new IllegalArgumentException("At least two primary hash functions are required");
+        }
+        this.phfs = new PrimaryHashFunction[phfs.length];
+        this.seeds = new int[phfs.length];
+        this.random = new SplittableRandom();
+        this.kickPath = new int[MAX_KICKS];
+        for (int i = 0; i < phfs.length; i++) {
+            if (phfs[i] == null) {
+                throw new NullPointerException("Primary hash function cannot be null");
+            }
+            this.phfs[i] = phfs[i];
+        }
+        this.mixer = new Murmur3HashMixer();
+        reseed();
+        this.buckets = INITIAL_BUCKETS;
+        this.table = new Object[INITIAL_BUCKETS * BUCKET_SIZE];
+        this.stash = new Object[STASH_SIZE];
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    private void reseed() {
+        for (int i = 0; i < phfs.length; i++) {
+            seeds[i] = random.nextInt();
+            if (phfs[i] instanceof SeededPrimaryHashFunction) {
+                phfs[i] = ((SeededPrimaryHashFunction) phfs[i]).reseed();
+            }
+        }
+    }
+
+    // primo slot del bucket scelto dalla funzione i
+    private int bucketStart(Object element, int i) {
+        return phfs[i].hash(mixer.mix(element.hashCode() ^ seeds[i]), buckets) * BUCKET_SIZE;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(Object element) {
+        for (int i = 0; i < phfs.length; i++) {
+            int start = bucketStart(element, i);
+            for (int s = start; s < start + BUCKET_SIZE; s++) {
+                Object slot = table[s];
+                if (slot != null && slot.equals(element)) {
+                    return s;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int stashIndexOf(Object element) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stash[i].equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return indexOf(element) >= 0 || stashIndexOf(element) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Object slot : table) {
+            if (slot != null) {
+                result[i++] = slot;
+            }
+        }
+        for (int j = 0; j < stashSize; j++) {
+            result[i++] = stash[j];
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] elements = toArray();
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        System.arraycopy(elements, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        if (contains(e)) {
+            return false;
+        }
+        if (size + 1 > getCurrentThreshold()) {
+            rehash(buckets * 2, null);
+        }
+        if (!insert(e) && !stashPut(e)) {
+            // gli elementi con lo stesso hashCode hanno le stesse celle candidate a ogni capacità:
+            // se sono più delle celle nessuna ricostruzione può sistemarli
+            if (countSameHashCode(e) + 1 > getMaxProbes()) {
+                throw new IllegalStateException("Too many elements with colliding hash codes");
+            }
+            rehash(buckets, e);
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private boolean tryPlace(Object element) {
+        for (int i = 0; i < phfs.length; i++) {
+            int start = bucketStart(element, i);
+            for (int s = start; s < start + BUCKET_SIZE; s++) {
+                if (table[s] == null) {
+                    table[s] = element;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserisce l'elemento spostando a caso gli occupanti nei loro bucket alternativi. Se dopo
+     * MAX_KICKS spostamenti resta un elemento senza posto, gli spostamenti vengono annullati e la
+     * tabella torna com'era.
+     */
+    private boolean insert(Object element) {
+        Object current = element;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            if (tryPlace(current)) {
+                return true;
+            }
+            int victim = bucketStart(current, random.nextInt(phfs.length)) + random.nextInt(BUCKET_SIZE);
+            kickPath[kick] = victim;
+            Object evicted = table[victim];
+            table[victim] = current;
+            current = evicted;
+        }
+        for (int kick = MAX_KICKS - 1; kick >= 0; kick--) {
+            Object evicted = table[kickPath[kick]];
+            table[kickPath[kick]] = current;
+            current = evicted;
+        }
+        return false;
+    }
+
+    private int countSameHashCode(Object element) {
+        int h = element.hashCode();
+        int count = 0;
+        for (Object slot : table) {
+            if (slot != null && slot.hashCode() == h) {
+                count++;
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            if (stash[i].hashCode() == h) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean stashPut(Object element) {
+        if (stashSize == STASH_SIZE) {
+            return false;
+        }
+        stash[stashSize++] = element;
+        return true;
+    }
+
+    /**
+     * Ricostruisce la tabella con nuovi semi (e, se sono seminate, nuove funzioni primarie). Dopo
+     * MAX_REHASHES tentativi falliti alla stessa capacità il numero di bucket raddoppia.
+     */
+    private void rehash(int newBuckets, Object extra) {
+        Object[] elements = toArray();
+        Object[] oldTable = table;
+        Object[] oldStash = stash;
+        int oldBuckets = buckets;
+        int oldStashSize = stashSize;
+        int[] oldSeeds = seeds.clone();
+        PrimaryHashFunction[] oldPhfs = phfs.clone();
+        int attempts = 0;
+        while (true) {
+            // troppi elementi con lo stesso hashCode non trovano posto a nessuna capacità
+            if (newBuckets > MAX_GROWTH * Math.max(oldBuckets, (size + 1) / BUCKET_SIZE + 1)) {
+                table = oldTable;
+                stash = oldStash;
+                buckets = oldBuckets;
+                stashSize = oldStashSize;
+                System.arraycopy(oldSeeds, 0, seeds, 0, seeds.length);
+                System.arraycopy(oldPhfs, 0, phfs, 0, phfs.length);
+                throw new IllegalStateException("Too many elements with colliding hash codes");
+            }
+            buckets = newBuckets;
+            table = new Object[newBuckets * BUCKET_SIZE];
+            stash = new Object[STASH_SIZE];
+            stashSize = 0;
+            if (attempts > 0) {
+                reseed();
+            }
+            if (insertAll(elements) && (extra == null || insertAll(new Object[] { extra }))) {
+                return;
+            }
+            if (++attempts == MAX_REHASHES) {
+                newBuckets *= 2;
+                attempts = 0;
+            }
+        }
+    }
+
+    private boolean insertAll(Object[] elements) {
+        for (Object element : elements) {
+            if (!insert(element) && !stashPut(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int index = indexOf(o);
+        if (index >= 0) {
+            table[index] = null;
+            // la cella liberata può accogliere un elemento dello stash
+            for (int i = 0; i < stashSize; i++) {
+                if (tryPlace(stash[i])) {
+                    removeFromStash(i);
+                    break;
+                }
+            }
+        } else {
+            int stashIndex = stashIndexOf(o);
+            if (stashIndex < 0) {
+                return false;
+            }
+            removeFromStash(stashIndex);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    private void removeFromStash(int index) {
+        stash[index] = stash[--stashSize];
+        stash[stashSize] = null;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (Object element : toArray()) {
+            if (!c.contains(element)) {
+                remove(element);
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        this.buckets = INITIAL_BUCKETS;
+        this.table = new Object[INITIAL_BUCKETS * BUCKET_SIZE];
+        this.stash = new Object[STASH_SIZE];
+        this.stashSize = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Numero massimo di celle esaminate da una ricerca, indipendentemente dal contenuto.
+     */
+    public int getMaxProbes() {
+        return phfs.length * BUCKET_SIZE + STASH_SIZE;
+    }
+
+    private class Itr implements Iterator<E> {
+        private int numeroModificheAtteso;
+        // gli indici oltre table.length percorrono lo stash
+        private int currentIndex;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentIndex = findNextIndex(0);
+        }
+
+        private int findNextIndex(int from) {
+            while (from < table.length && table[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < table.length + stashSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            if (currentIndex >= table.length) {
+                return (E) stash[currentIndex++ - table.length];
+            }
+            E item = (E) table[currentIndex];
+            currentIndex = findNextIndex(currentIndex + 1);
+            return item;
+        }
+    }
+
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    protected Object[] getStash() {
+        return this.stash;
+    }
+
+    protected int getStashSize() {
+        return this.stashSize;
+    }
+
+    protected PrimaryHashFunction[] getPhfs() {
+        return this.phfs;
+    }
+
+}
@@ -0,0 +1,148 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CuckooHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void testNeedsTwoFunctions() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CuckooHashTable<Integer>(divisionHash);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            new CuckooHashTable<Integer>(divisionHash, null);
+        });
+    }
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new CuckooHashTable<>(divisionHash, divisionHash));
+    }
+
+    @Test
+    void mixedHash_testAddContainsRemove() {
+        addContainsRemove(new CuckooHashTable<>(divisionHash, multiplicationHash, new UniversalPrimaryHashFunction()));
+    }
+
+    private void addContainsRemove(CuckooHashTable<Integer> table) {
+        Set<Integer> expected = RandomSetOperations.check(table, 13, 50000, 6000);
+        assertEquals(expected, new HashSet<>(Arrays.asList(table.toArray())));
+        // ogni elemento sta nella tabella o nello stash, mai in entrambi
+        int stored = 0;
+        for (Object slot : table.getTable()) {
+            if (slot != null) {
+                stored++;
+            }
+        }
+        assertEquals(expected.size(), stored + table.getStashSize());
+    }
+
+    @Test
+    void divisionHash_testElementsStayInTheirBuckets() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash, multiplicationHash);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i * 64);
+        }
+        assertEquals(2 * 4 + 4, table.getMaxProbes());
+        assertTrue(table.getStashSize() <= table.getStash().length);
+        int stored = 0;
+        for (Object slot : table.getTable()) {
+            if (slot != null) {
+                stored++;
+            }
+        }
+        assertEquals(10000, stored + table.getStashSize());
+    }
+
+    @Test
+    void divisionHash_testIdenticalHashCodes() {
+        CuckooHashTable<CollidingKey> table = new CuckooHashTable<>(divisionHash, multiplicationHash);
+        // con hashCode tutti uguali ogni elemento ha gli stessi due bucket: ne entrano 2 * 4 più lo stash
+        for (int i = 0; i < 12; i++) {
+            assertTrue(table.add(new CollidingKey(i)));
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            table.add(new CollidingKey(12));
+        });
+        assertEquals(12, table.size());
+        for (int i = 0; i < 12; i++) {
+            assertTrue(table.contains(new CollidingKey(i)));
+        }
+        assertFalse(table.contains(new CollidingKey(12)));
+    }
+
+    @Test
+    void multiplicationHash_testCollidingHashCodesAreRejectedWithoutGrowing() {
+        long[] calls = new long[1];
+        PrimaryHashFunction counting = (key, m) -> {
+            calls[0]++;
+            return multiplicationHash.hash(key, m);
+        };
+        CuckooHashTable<Object> table = new CuckooHashTable<>(counting, divisionHash);
+        // nessun Integer con hashCode 7, quello di CollidingKey
+        for (int i = 100; i < 100100; i++) {
+            table.add(i);
+        }
+        int length = table.getTable().length;
+        int accepted = 0;
+        for (int i = 0; i < 12; i++) {
+            if (table.add(new CollidingKey(i))) {
+                accepted++;
+            }
+        }
+        assertEquals(12, accepted);
+        // il tredicesimo non può entrare a nessuna capacità: niente ricostruzioni né crescita
+        calls[0] = 0;
+        assertThrows(IllegalStateException.class, () -> {
+            table.add(new CollidingKey(12));
+        });
+        // bastano i tentativi di spostamento; una ricostruzione reinserirebbe 100000 elementi
+        assertTrue(calls[0] < 10000, "hash calls: " + calls[0]);
+        assertEquals(length, table.getTable().length);
+        assertEquals(100012, table.size());
+        assertFalse(table.contains(new CollidingKey(12)));
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash, multiplicationHash);
+        table.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    private static class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+    }
+
+}
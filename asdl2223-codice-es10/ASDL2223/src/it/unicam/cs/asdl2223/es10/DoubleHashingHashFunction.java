@@ -0,0 +1,24 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class DoubleHashingHashFunction implements OpenAddressingHashFunction {
+
+    private final PrimaryHashFunction phf1;
+
+    private final PrimaryHashFunction phf2;
+
+    public DoubleHashingHashFunction(PrimaryHashFunction phf1, PrimaryHashFunction phf2) {
+        if (phf1 == null || phf2 == null) {
+            throw new NullPointerException("Primary hash functions cannot be null");
+        }
+        this.phf1 = phf1;
+        this.phf2 = phf2;
+    }
+
+    @Override
+    public int hash(int key, int i, int m) {
+        // il passo è dispari, quindi primo con m quando m è una potenza di 2
+        long step = m > 1 ? 2L * phf2.hash(key, m / 2) + 1 : 1;
+        return (int) ((phf1.hash(key, m) + i * step) % m);
+    }
+
+}
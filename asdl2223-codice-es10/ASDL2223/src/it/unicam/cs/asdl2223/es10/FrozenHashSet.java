@@ -0,0 +1,289 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Insieme immutabile costruito da CollisionListResizableHashTable.freeze(), basato su una
+ * funzione hash perfetta minimale in stile BBHash. Al livello i ogni chiave rimasta sceglie un bit
+ * in un array di GAMMA * (chiavi rimaste) bit; i bit scelti da una sola chiave restano accesi e
+ * quella chiave è sistemata, le altre passano al livello successivo. La posizione di una chiave
+ * nell'array compatto delle chiavi è il numero di bit accesi prima del suo (rank).
+ *
+ * Una ricerca calcola hashCode una sola volta, scorre i livelli fino al primo bit acceso e fa un
+ * solo confronto con equals. Le chiavi che non si separano entro MAX_LEVELS livelli, per esempio
+ * quelle con lo stesso hashCode, finiscono in una piccola tabella di riserva.
+ */
+public class FrozenHashSet<E> implements Set<E> {
+    private static final double GAMMA = 1.0;
+    private static final int MAX_LEVELS = 32;
+    // un contatore di rank ogni 8 parole, cioè ogni 512 bit
+    private static final int WORDS_PER_RANK = 8;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final VarHandle WORD = MethodHandles.arrayElementVarHandle(long[].class);
+    private final long[] bits;
+    private final int[] ranks;
+    private final long[] levelOffsets;
+    private final long[] levelSizes;
+    private final Object[] keys;
+    private final CollisionListResizableHashTable<E> fallback;
+
+    /**
+     * Costruisce i livelli in parallelo: i bit vengono accesi con operazioni atomiche, quindi i
+     * thread possono lavorare sulle stesse parole.
+     */
+    FrozenHashSet(CollisionListResizableHashTable<E> source) {
+        Object[] items = source.toArray();
+        int n = items.length;
+        int[] hashCodes = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> hashCodes[i] = items[i].hashCode());
+        List<long[]> levels = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        int[] remaining = IntStream.range(0, n).toArray();
+        while (remaining.length > 0 && levels.size() < MAX_LEVELS) {
+            int level = levels.size();
+            long size = Math.max(64, ((long) Math.ceil(GAMMA * remaining.length) + 63) & ~63L);
+            long[] seen = new long[(int) (size >>> 6)];
+            long[] collided = new long[seen.length];
+            int[] keysAtLevel = remaining;
+            IntStream.range(0, keysAtLevel.length).parallel().forEach(i -> {
+                long position = position(hashCodes[keysAtLevel[i]], level, size);
+                long bit = 1L << position;
+                int word = (int) (position >>> 6);
+                if (((long) WORD.getAndBitwiseOr(seen, word, bit) & bit) != 0) {
+                    WORD.getAndBitwiseOr(collided, word, bit);
+                }
+            });
+            for (int w = 0; w < seen.length; w++) {
+                seen[w] &= ~collided[w];
+            }
+            levels.add(seen);
+            sizes.add(size);
+            remaining = IntStream.range(0, keysAtLevel.length).parallel()
+                    .filter(i -> isCollided(collided, position(hashCodes[keysAtLevel[i]], level, size)))
+                    .map(i -> keysAtLevel[i]).toArray();
+        }
+        this.levelOffsets = new long[levels.size()];
+        this.levelSizes = new long[levels.size()];
+        long offset = 0;
+        for (int l = 0; l < levels.size(); l++) {
+            levelOffsets[l] = offset;
+            levelSizes[l] = sizes.get(l);
+            offset += sizes.get(l);
+        }
+        this.bits = new long[(int) (offset >>> 6)];
+        for (int l = 0; l < levels.size(); l++) {
+            System.arraycopy(levels.get(l), 0, bits, (int) (levelOffsets[l] >>> 6), levels.get(l).length);
+        }
+        this.ranks = new int[(bits.length + WORDS_PER_RANK - 1) / WORDS_PER_RANK];
+        int rank = 0;
+        for (int w = 0; w < bits.length; w++) {
+            if (w % WORDS_PER_RANK == 0) {
+                ranks[w / WORDS_PER_RANK] = rank;
+            }
+            rank += Long.bitCount(bits[w]);
+        }
+        this.keys = new Object[rank];
+        if (remaining.length > 0) {
+            this.fallback = new CollisionListResizableHashTable<>(source.getPhf(), remaining.length);
+            for (int i : remaining) {
+                @SuppressWarnings("unchecked")
+                E element = (E) items[i];
+                fallback.add(element);
+            }
+        } else {
+            this.fallback = null;
+        }
+        // ogni chiave sistemata ha un rank diverso: i thread scrivono in celle distinte
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int index = indexOf(hashCodes[i]);
+            if (index >= 0) {
+                keys[index] = items[i];
+            }
+        });
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ogni livello usa un hash diverso derivato dallo stesso hashCode
+    private static long position(int hashCode, int level, long size) {
+        long h = mix64(hashCode + (level + 1) * GOLDEN);
+        return ((h >>> 32) * size) >>> 32;
+    }
+
+    private static boolean isCollided(long[] collided, long position) {
+        return (collided[(int) (position >>> 6)] & (1L << position)) != 0;
+    }
+
+    private int rank(long position) {
+        int word = (int) (position >>> 6);
+        int r = ranks[word / WORDS_PER_RANK];
+        for (int w = word - word % WORDS_PER_RANK; w < word; w++) {
+            r += Long.bitCount(bits[w]);
+        }
+        return r + Long.bitCount(bits[word] & ((1L << position) - 1));
+    }
+
+    /**
+     * Indice nell'array delle chiavi dell'unica chiave che può essere uguale a un elemento con
+     * questo hashCode, oppure -1.
+     */
+    private int indexOf(int hashCode) {
+        for (int l = 0; l < levelOffsets.length; l++) {
+            long position = levelOffsets[l] + position(hashCode, l, levelSizes[l]);
+            if ((bits[(int) (position >>> 6)] & (1L << position)) != 0) {
+                return rank(position);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length + (fallback == null ? 0 : fallback.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int hashCode = element.hashCode();
+        int index = indexOf(hashCode);
+        if (index >= 0) {
+            return keys[index].equals(element);
+        }
+        return fallback != null && fallback.contains(element);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        System.arraycopy(keys, 0, a, 0, keys.length);
+        int i = keys.length;
+        if (fallback != null) {
+            for (E element : fallback) {
+                a[i++] = (T) element;
+            }
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean add(E e) {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Frozen set cannot be modified");
+    }
+
+    /**
+     * Bit usati dalla funzione hash (livelli e contatori di rank) per chiave, esclusi l'array delle
+     * chiavi e la tabella di riserva.
+     */
+    public double getBitsPerKey() {
+        return size() == 0 ? 0 : ((double) bits.length * Long.SIZE + (double) ranks.length * Integer.SIZE) / size();
+    }
+
+    public int getLevels() {
+        return levelOffsets.length;
+    }
+
+    public int getFallbackSize() {
+        return fallback == null ? 0 : fallback.size();
+    }
+
+    private class Itr implements Iterator<E> {
+        private int currentIndex;
+        private Iterator<E> fallbackIterator;
+
+        @Override
+        public boolean hasNext() {
+            if (currentIndex < keys.length) {
+                return true;
+            }
+            if (fallbackIterator == null && fallback != null) {
+                fallbackIterator = fallback.iterator();
+            }
+            return fallbackIterator != null && fallbackIterator.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            if (currentIndex < keys.length) {
+                return (E) keys[currentIndex++];
+            }
+            return fallbackIterator.next();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class FrozenHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testFreezeKeepsContents() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(divisionHash);
+        Random random = new Random(31);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int val = random.nextInt();
+            table.add(val);
+            expected.add(val);
+        }
+        FrozenHashSet<Integer> frozen = table.freeze();
+        assertEquals(expected.size(), frozen.size());
+        for (Integer i : expected) {
+            assertTrue(frozen.contains(i));
+        }
+        for (int i = 0; i < 100000; i++) {
+            int val = random.nextInt();
+            assertEquals(expected.contains(val), frozen.contains(val));
+        }
+        Set<Integer> visited = new HashSet<>();
+        for (Integer i : frozen) {
+            assertTrue(visited.add(i));
+        }
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void multiplicationHash_testMetadataIsCompact() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash);
+        for (int i = 0; i < 200000; i++) {
+            table.add(i);
+        }
+        FrozenHashSet<Integer> frozen = table.freeze();
+        assertEquals(0, frozen.getFallbackSize());
+        assertTrue(frozen.getBitsPerKey() < 4, "bits per key: " + frozen.getBitsPerKey());
+    }
+
+    @Test
+    void divisionHash_testCollidingHashCodesGoToFallback() {
+        CollisionListResizableHashTable<String> table = new CollisionListResizableHashTable<>(divisionHash);
+        // quattro stringhe con lo stesso hashCode: la funzione perfetta non può separarle
+        table.addAll(Arrays.asList("AaAa", "AaBB", "BBAa", "BBBB", "other"));
+        FrozenHashSet<String> frozen = table.freeze();
+        assertEquals(4, frozen.getFallbackSize());
+        assertEquals(5, frozen.size());
+        assertTrue(frozen.containsAll(Arrays.asList("AaAa", "AaBB", "BBAa", "BBBB", "other")));
+        assertFalse(frozen.contains("BBBBBB"));
+    }
+
+    @Test
+    void multiplicationHash_testFrozenSetIsImmutableAndIndependent() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(multiplicationHash);
+        table.addAll(Arrays.asList(12, 42, 5));
+        FrozenHashSet<Integer> frozen = table.freeze();
+        table.add(7);
+        assertFalse(frozen.contains(7));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.add(7));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(12));
+        assertThrows(NullPointerException.class, () -> frozen.contains(null));
+        Integer[] array = frozen.toArray(new Integer[0]);
+        Arrays.sort(array);
+        assertArrayEquals(new Integer[] { 5, 12, 42 }, array);
+        assertTrue(new CollisionListResizableHashTable<Integer>(multiplicationHash).freeze().isEmpty());
+    }
+
+}
@@ -0,0 +1,6 @@
+package it.unicam.cs.asdl2223.es10;
+
+@FunctionalInterface
+public interface HashMixer {
+    public int mix(int h);
+}
@@ -0,0 +1,1257 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class HashSetBenchmark {
+    private static final int SIZE = Integer.getInteger("benchmark.size", 1_000_000);
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final long SEED = 42;
+    private static final String HASH_TIMING = "--hash-timing";
+
+    public static void main(String[] args) {
+        if (args.length == 3 && args[0].equals(HASH_TIMING)) {
+            // processo figlio lanciato da hashFunctions(): stampa solo i ns per chiamata
+            System.out.println(nanosPerHash(args[1], Integer.parseInt(args[2])));
+            return;
+        }
+        Set<String> sections = new HashSet<>(Arrays.asList(args));
+        if (sections.isEmpty() || sections.contains("openaddressing")) {
+            openAddressing();
+        }
+        if (sections.isEmpty() || sections.contains("robinhood")) {
+            robinHood();
+        }
+        if (sections.isEmpty() || sections.contains("resizepause")) {
+            resizePause();
+        }
+        if (sections.isEmpty() || sections.contains("primitive")) {
+            primitive();
+        }
+        if (sections.isEmpty() || sections.contains("mixing")) {
+            mixing();
+        }
+        if (sections.isEmpty() || sections.contains("statistics")) {
+            statistics();
+        }
+        if (sections.isEmpty() || sections.contains("offheap")) {
+            offHeap();
+        }
+        if (sections.isEmpty() || sections.contains("mapped")) {
+            mapped();
+        }
+        if (sections.isEmpty() || sections.contains("cuckoo")) {
+            cuckoo();
+        }
+        if (sections.isEmpty() || sections.contains("bulk")) {
+            bulk();
+        }
+        if (sections.isEmpty() || sections.contains("parallel")) {
+            parallel();
+        }
+        if (sections.isEmpty() || sections.contains("shrink")) {
+            shrink();
+        }
+        if (sections.isEmpty() || sections.contains("footprint")) {
+            footprint();
+        }
+        if (sections.isEmpty() || sections.contains("expensive")) {
+            expensiveKeys();
+        }
+        if (sections.isEmpty() || sections.contains("bloom")) {
+            bloom();
+        }
+        if (sections.isEmpty() || sections.contains("swiss")) {
+            swiss();
+        }
+        if (sections.isEmpty() || sections.contains("striped")) {
+            striped();
+        }
+        if (sections.isEmpty() || sections.contains("splitordered")) {
+            splitOrdered();
+        }
+        if (sections.isEmpty() || sections.contains("forwarding")) {
+            forwarding();
+        }
+        if (sections.isEmpty() || sections.contains("frozen")) {
+            frozen();
+        }
+        if (sections.isEmpty() || sections.contains("champ")) {
+            champ();
+        }
+        if (sections.isEmpty() || sections.contains("map")) {
+            map();
+        }
+        if (sections.isEmpty() || sections.contains("hashfunctions")) {
+            hashFunctions();
+        }
+    }
+
+    private static void openAddressing() {
+        System.out.println("== Open addressing vs collision lists (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        PrimaryHashFunction phf2 = new MultiplicationPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("OpenAddressingHashTable/linear",
+                () -> new OpenAddressingHashTable<>(new LinearProbingHashFunction(phf)), keys, missing);
+        throughput("OpenAddressingHashTable/quadratic",
+                () -> new OpenAddressingHashTable<>(new QuadraticProbingHashFunction(phf)), keys, missing);
+        throughput("OpenAddressingHashTable/double",
+                () -> new OpenAddressingHashTable<>(new DoubleHashingHashFunction(phf, phf2)), keys, missing);
+    }
+
+    private static void robinHood() {
+        System.out.println("== Robin Hood probe lengths vs collision lists (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        CollisionListResizableHashTable<Integer> chained = new CollisionListResizableHashTable<>(phf);
+        chained.addAll(Arrays.asList(keys));
+        int[] histogram = chainProbeLengthHistogram(chained.getTable());
+        System.out.printf("%-40s mean %.3f  p99 %d  max %d%n", "CollisionListResizableHashTable",
+                mean(histogram), percentile(histogram, 0.99), histogram.length - 1);
+        for (double loadFactor : new double[] { 0.75, 0.875, 0.95 }) {
+            RobinHoodHashTable<Integer> robinHood = new RobinHoodHashTable<>(phf, loadFactor);
+            robinHood.addAll(Arrays.asList(keys));
+            System.out.printf("%-40s mean %.3f  p99 %d  max %d%n", "RobinHoodHashTable/" + loadFactor,
+                    robinHood.getMeanProbeLength(), robinHood.getProbeLengthPercentile(0.99),
+                    robinHood.getMaxProbeLength());
+        }
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        for (double loadFactor : new double[] { 0.75, 0.875, 0.95 }) {
+            throughput("RobinHoodHashTable/" + loadFactor, () -> new RobinHoodHashTable<>(phf, loadFactor), keys,
+                    missing);
+        }
+    }
+
+    private static void resizePause() {
+        System.out.println("== add() latency (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long[] stopTheWorld = addLatencies(new CollisionListResizableHashTable<>(phf, false), keys);
+            long[] incremental = addLatencies(new CollisionListResizableHashTable<>(phf, true), keys);
+            if (round >= WARMUP_ROUNDS) {
+                System.out.printf("stop-the-world: %4d adds over 1 ms, max %8.3f ms   "
+                        + "incremental: %4d adds over 1 ms, max %8.3f ms%n", countAbove(stopTheWorld, 1_000_000),
+                        stopTheWorld[keys.length - 1] / 1e6, countAbove(incremental, 1_000_000),
+                        incremental[keys.length - 1] / 1e6);
+            }
+        }
+    }
+
+    private static <T> long[] addLatencies(Set<T> set, T[] keys) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            set.add(keys[i]);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static int countAbove(long[] sorted, long limit) {
+        int count = 0;
+        for (int i = sorted.length - 1; i >= 0 && sorted[i] > limit; i--) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void primitive() {
+        System.out.println("== IntHashSet vs boxed sets (" + SIZE + " random int keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        int[] rawKeys = new int[SIZE];
+        int[] rawMissing = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            rawKeys[i] = keys[i];
+            rawMissing[i] = missing[i];
+        }
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            IntHashSet set = new IntHashSet(phf);
+            long start = System.nanoTime();
+            for (int key : rawKeys) {
+                set.add(key);
+            }
+            long afterInsert = System.nanoTime();
+            int found = 0;
+            for (int key : rawKeys) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterHit = System.nanoTime();
+            for (int key : rawMissing) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterMiss = System.nanoTime();
+            if (round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1) {
+                System.out.printf("%-40s insert %8.2f Mops/s   hit %8.2f Mops/s   miss %8.2f Mops/s (%d)%n",
+                        "IntHashSet", opsPerSecond(SIZE, afterInsert - start), opsPerSecond(SIZE, afterHit - afterInsert),
+                        opsPerSecond(SIZE, afterMiss - afterHit), found);
+            }
+        }
+        long boxedBytes = retainedBytes(() -> {
+            CollisionListResizableHashTable<Integer> boxed = new CollisionListResizableHashTable<>(phf);
+            for (int key : rawKeys) {
+                boxed.add(key);
+            }
+            return boxed;
+        });
+        long primitiveBytes = retainedBytes(() -> {
+            IntHashSet primitive = new IntHashSet(phf);
+            for (int key : rawKeys) {
+                primitive.add(key);
+            }
+            return primitive;
+        });
+        System.out.printf("heap per element: CollisionListResizableHashTable %.1f B, IntHashSet %.1f B%n",
+                (double) boxedBytes / SIZE, (double) primitiveBytes / SIZE);
+    }
+
+    private static void offHeap() {
+        System.out.println("== OffHeapLongHashSet vs CollisionListResizableHashTable (" + SIZE + " random long keys)");
+        Random random = new Random(SEED);
+        long[] keys = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = random.nextLong();
+        }
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            long[] gcBefore = gcCountAndTime();
+            long start = System.nanoTime();
+            CollisionListResizableHashTable<Long> boxed = new CollisionListResizableHashTable<>(phf);
+            for (long key : keys) {
+                boxed.add(key);
+            }
+            // forza un ciclo completo: il costo dipende dal numero di oggetti vivi
+            System.gc();
+            long elapsed = System.nanoTime() - start;
+            long[] gcAfter = gcCountAndTime();
+            if (report) {
+                printGc("CollisionListResizableHashTable", elapsed, gcBefore, gcAfter, boxed.size());
+            }
+            boxed = null;
+            System.gc();
+            gcBefore = gcCountAndTime();
+            start = System.nanoTime();
+            try (OffHeapLongHashSet offHeap = new OffHeapLongHashSet(phf)) {
+                for (long key : keys) {
+                    offHeap.add(key);
+                }
+                System.gc();
+                elapsed = System.nanoTime() - start;
+                gcAfter = gcCountAndTime();
+                if (report) {
+                    printGc("OffHeapLongHashSet", elapsed, gcBefore, gcAfter, offHeap.size());
+                    System.out.printf("off-heap bytes per element: %.1f B%n",
+                            (double) offHeap.getOffHeapBytes() / offHeap.size());
+                }
+            }
+        }
+    }
+
+    private static void mapped() {
+        System.out.println("== MappedLongHashSet: rebuild vs reopen (" + SIZE + " random long keys)");
+        Random random = new Random(SEED);
+        long[] keys = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = random.nextLong();
+        }
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        try {
+            java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("mapped-benchmark");
+            java.nio.file.Path file = dir.resolve("set.bin");
+            long start = System.nanoTime();
+            CollisionListResizableHashTable<Long> rebuilt = new CollisionListResizableHashTable<>(phf);
+            for (long key : keys) {
+                rebuilt.add(key);
+            }
+            System.out.printf("%-40s %10.2f ms (%d)%n", "rebuild CollisionListResizableHashTable",
+                    (System.nanoTime() - start) / 1e6, rebuilt.size());
+            start = System.nanoTime();
+            try (MappedLongHashSet set = MappedLongHashSet.open(file, phf)) {
+                for (long key : keys) {
+                    set.add(key);
+                }
+            }
+            System.out.printf("%-40s %10.2f ms%n", "build MappedLongHashSet", (System.nanoTime() - start) / 1e6);
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                start = System.nanoTime();
+                try (MappedLongHashSet set = MappedLongHashSet.open(file, phf)) {
+                    long reopened = System.nanoTime();
+                    boolean found = set.contains(keys[round]);
+                    System.out.printf("%-40s %10.3f ms   first lookup %8.3f ms (%b, %d)%n", "reopen MappedLongHashSet",
+                            (reopened - start) / 1e6, (System.nanoTime() - reopened) / 1e6, found, set.size());
+                }
+            }
+            java.nio.file.Files.delete(file);
+            java.nio.file.Files.delete(dir);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private static void cuckoo() {
+        System.out.println("== Cuckoo vs collision lists, negative lookups (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        PrimaryHashFunction phf2 = new MultiplicationPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("CuckooHashTable/2", () -> new CuckooHashTable<>(phf, phf2), keys, missing);
+        throughput("CuckooHashTable/3", () -> new CuckooHashTable<>(phf, phf2, phf), keys, missing);
+        CollisionListResizableHashTable<Integer> chained = new CollisionListResizableHashTable<>(phf);
+        chained.addAll(Arrays.asList(keys));
+        CuckooHashTable<Integer> cuckoo = new CuckooHashTable<>(phf, phf2);
+        cuckoo.addAll(Arrays.asList(keys));
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            missLatencies(chained, missing);
+            missLatencies(cuckoo, missing);
+        }
+        printMissLatencies("CollisionListResizableHashTable", missLatencies(chained, missing));
+        printMissLatencies("CuckooHashTable/2 (max " + cuckoo.getMaxProbes() + " probes)", missLatencies(cuckoo, missing));
+    }
+
+    /**
+     * Tempo medio per ricerca, in nanosecondi, su blocchi di 64 ricerche fallite consecutive: il
+     * singolo contains è troppo breve per la risoluzione di System.nanoTime.
+     */
+    private static <T> double[] missLatencies(Set<T> set, T[] missing) {
+        int block = 64;
+        double[] latencies = new double[missing.length / block];
+        int found = 0;
+        for (int b = 0; b < latencies.length; b++) {
+            long start = System.nanoTime();
+            for (int i = b * block; i < (b + 1) * block; i++) {
+                if (set.contains(missing[i])) {
+                    found++;
+                }
+            }
+            latencies[b] = (double) (System.nanoTime() - start) / block;
+        }
+        if (found < 0) {
+            System.out.println(found);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void printMissLatencies(String name, double[] sorted) {
+        System.out.printf("%-40s miss p50 %6.1f ns   p99 %6.1f ns   max %8.1f ns%n", name,
+                sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)], sorted[sorted.length - 1]);
+    }
+
+    private static void bulk() {
+        System.out.println("== Bulk load into CollisionListResizableHashTable (" + SIZE + " random Integer keys)");
+        List<Integer> keys = Arrays.asList(randomKeys(SIZE, SEED));
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            CollisionListResizableHashTable<Integer> oneByOne = new CollisionListResizableHashTable<>(phf);
+            oneByOne.enableStatistics();
+            long start = System.nanoTime();
+            for (Integer key : keys) {
+                oneByOne.add(key);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (report) {
+                System.out.printf("%-40s %8.1f ms   resizes %d%n", "add one by one", elapsed / 1e6,
+                        oneByOne.getStatistics().getResizeCount());
+            }
+            oneByOne.disableStatistics();
+            // libera i nodi prima del secondo carico, che altrimenti pagherebbe la raccolta del primo
+            oneByOne.clear();
+            CollisionListResizableHashTable<Integer> bulk = new CollisionListResizableHashTable<>(phf);
+            bulk.enableStatistics();
+            start = System.nanoTime();
+            bulk.addAll(keys);
+            elapsed = System.nanoTime() - start;
+            if (report) {
+                System.out.printf("%-40s %8.1f ms   resizes %d%n", "addAll", elapsed / 1e6,
+                        bulk.getStatistics().getResizeCount());
+            }
+            bulk.disableStatistics();
+            start = System.nanoTime();
+            bulk.retainAll(new HashSet<>(keys.subList(0, SIZE / 2)));
+            elapsed = System.nanoTime() - start;
+            if (report) {
+                System.out.printf("%-40s %8.1f ms   (%d left)%n", "retainAll half", elapsed / 1e6, bulk.size());
+            }
+        }
+    }
+
+    private static void parallel() {
+        System.out.println("== Sequential vs parallel streams over CollisionListResizableHashTable (" + SIZE
+                + " random Integer keys, " + Runtime.getRuntime().availableProcessors() + " cores)");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf, SIZE);
+        table.addAll(Arrays.asList(randomKeys(SIZE, SEED)));
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            long start = System.nanoTime();
+            long sequential = table.stream().mapToLong(HashSetBenchmark::work).sum();
+            long afterSequential = System.nanoTime();
+            long parallel = table.stream().parallel().mapToLong(HashSetBenchmark::work).sum();
+            long afterParallel = System.nanoTime();
+            if (report) {
+                System.out.printf("%-40s %8.1f ms%n%-40s %8.1f ms   speedup %.2fx (%b)%n", "stream()",
+                        (afterSequential - start) / 1e6, "stream().parallel()", (afterParallel - afterSequential) / 1e6,
+                        (double) (afterSequential - start) / (afterParallel - afterSequential), sequential == parallel);
+            }
+        }
+    }
+
+    // un po' di calcolo per elemento, perché lo scorrimento da solo è limitato dalla memoria
+    private static long work(Integer key) {
+        long x = key;
+        for (int i = 0; i < 16; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x >>> 40;
+    }
+
+    private static void shrink() {
+        System.out.println("== Iteration after removing 99% of " + SIZE + " random Integer keys");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        iterateAfterRemoval("no shrink", new CollisionListResizableHashTable<>(phf), keys);
+        iterateAfterRemoval("shrinkFactor 0.25",
+                new CollisionListResizableHashTable<>(phf, 0, 0.75, 0.25), keys);
+        CollisionListResizableHashTable<Integer> trimmed = new CollisionListResizableHashTable<>(phf);
+        trimmed.addAll(Arrays.asList(keys));
+        trimmed.removeAll(Arrays.asList(keys).subList(0, SIZE - SIZE / 100));
+        trimmed.trimToSize();
+        iterate("trimToSize()", trimmed);
+    }
+
+    private static void iterateAfterRemoval(String name, CollisionListResizableHashTable<Integer> table,
+            Integer[] keys) {
+        table.addAll(Arrays.asList(keys));
+        for (int i = 0; i < SIZE - SIZE / 100; i++) {
+            table.remove(keys[i]);
+        }
+        iterate(name, table);
+    }
+
+    private static void iterate(String name, CollisionListResizableHashTable<Integer> table) {
+        long elapsed = 0;
+        long sum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Integer key : table) {
+                sum += key;
+            }
+            if (round >= WARMUP_ROUNDS) {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("%-40s buckets %9d   iteration %8.3f ms (%d)%n", name, table.getTable().length,
+                elapsed / 1e6 / MEASURED_ROUNDS, sum);
+    }
+
+    private static void footprint() {
+        System.out.println("== Footprint and throughput, nodes vs parallel arrays (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("IndexedCollisionListHashTable", () -> new IndexedCollisionListHashTable<>(phf), keys, missing);
+        // le chiavi restano raggiungibili da keys: si misura solo la struttura
+        long nodeBytes = retainedBytes(() -> {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf);
+            table.addAll(Arrays.asList(keys));
+            return table;
+        });
+        long indexedBytes = retainedBytes(() -> {
+            IndexedCollisionListHashTable<Integer> table = new IndexedCollisionListHashTable<>(phf);
+            table.addAll(Arrays.asList(keys));
+            return table;
+        });
+        System.out.printf("structure bytes per element: CollisionListResizableHashTable %.1f B, "
+                + "IndexedCollisionListHashTable %.1f B%n", (double) nodeBytes / SIZE, (double) indexedBytes / SIZE);
+    }
+
+    private static void expensiveKeys() {
+        int n = Math.max(1, SIZE / 10);
+        System.out.println("== Keys with costly hashCode/equals (" + n + " composite keys of 64 ints)");
+        ExpensiveKey[] keys = new ExpensiveKey[n];
+        ExpensiveKey[] missing = new ExpensiveKey[n];
+        Random random = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            keys[i] = new ExpensiveKey(random);
+            missing[i] = new ExpensiveKey(random);
+        }
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("IndexedCollisionListHashTable", () -> new IndexedCollisionListHashTable<>(phf), keys, missing);
+        throughput("RobinHoodHashTable", () -> new RobinHoodHashTable<>(phf), keys, missing);
+        for (Supplier<Set<ExpensiveKey>> factory : Arrays.<Supplier<Set<ExpensiveKey>>>asList(
+                () -> new CollisionListResizableHashTable<>(phf), () -> new IndexedCollisionListHashTable<>(phf),
+                () -> new RobinHoodHashTable<>(phf))) {
+            Set<ExpensiveKey> set = factory.get();
+            ExpensiveKey.hashCodeCalls = 0;
+            ExpensiveKey.equalsCalls = 0;
+            for (ExpensiveKey key : keys) {
+                set.add(key);
+            }
+            for (ExpensiveKey key : missing) {
+                set.contains(key);
+            }
+            System.out.printf("%-40s hashCode calls/op %.2f   equals calls/op %.2f%n",
+                    set.getClass().getSimpleName(), (double) ExpensiveKey.hashCodeCalls / (2 * n),
+                    (double) ExpensiveKey.equalsCalls / (2 * n));
+        }
+    }
+
+    /**
+     * Chiave composta che ricalcola l'hash a ogni chiamata, come una chiave immutabile senza cache.
+     * Tutte le chiavi condividono un lungo prefisso, quindi anche equals è costoso.
+     */
+    private static final class ExpensiveKey {
+        static long hashCodeCalls;
+        static long equalsCalls;
+        private final int[] parts = new int[64];
+
+        ExpensiveKey(Random random) {
+            parts[parts.length - 1] = random.nextInt();
+            parts[parts.length - 2] = random.nextInt();
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            equalsCalls++;
+            return obj instanceof ExpensiveKey && Arrays.equals(parts, ((ExpensiveKey) obj).parts);
+        }
+    }
+
+    private static void bloom() {
+        System.out.println("== Bloom filter front for negative lookups (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        for (double rate : new double[] { 0.1, 0.01, 0.001 }) {
+            throughput("CollisionListResizableHashTable+bloom " + rate, () -> {
+                CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf);
+                table.enableBloomFilter(rate);
+                return table;
+            }, keys, missing);
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf);
+            table.enableBloomFilter(rate);
+            table.addAll(Arrays.asList(keys));
+            CountingBloomFilter filter = table.getBloomFilter();
+            filter.resetCounters();
+            for (Integer key : missing) {
+                table.contains(key);
+            }
+            System.out.printf("%-40s hit ratio %.4f   false positives %.4f   filter %.2f B/element%n", "",
+                    filter.getHitRatio(), filter.getObservedFalsePositiveRate(),
+                    (double) filter.getSizeInBytes() / table.size());
+        }
+    }
+
+    private static void swiss() {
+        System.out.println("== Swiss table vs collision lists by load factor (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (double loadFactor : new double[] { 0.5, 0.625, 0.75, 0.875 }) {
+            throughput("CollisionListResizableHashTable/" + loadFactor,
+                    () -> new CollisionListResizableHashTable<>(phf, new Murmur3HashMixer(), false, 0, loadFactor, 0),
+                    keys, missing);
+            throughput("SwissHashTable/" + loadFactor, () -> new SwissHashTable<>(phf, loadFactor), keys, missing);
+        }
+    }
+
+    private static void striped() {
+        System.out.println("== Concurrent sets under add/contains from several threads (" + SIZE + " random Integer keys, "
+                + Runtime.getRuntime().availableProcessors() + " cores)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int threads : new int[] { 1, 2, 4, 8 }) {
+            concurrentThroughput("synchronized CollisionList/" + threads,
+                    () -> Collections.synchronizedSet(new CollisionListResizableHashTable<>(phf)), keys, missing, threads);
+            concurrentThroughput("StripedHashSet/" + threads, () -> new StripedHashSet<>(phf, threads * 4), keys,
+                    missing, threads);
+            concurrentThroughput("ConcurrentHashMap.newKeySet/" + threads, ConcurrentHashMap::newKeySet, keys, missing,
+                    threads);
+        }
+    }
+
+    private static void splitOrdered() {
+        System.out.println("== Lock-free split-ordered list vs lock-based sets (" + SIZE + " random Integer keys, "
+                + Runtime.getRuntime().availableProcessors() + " cores)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int threads : new int[] { 1, 2, 4, 8, 16, 32, 64 }) {
+            concurrentThroughput("SplitOrderedHashSet/" + threads, SplitOrderedHashSet::new, keys, missing, threads);
+            concurrentThroughput("StripedHashSet/" + threads, () -> new StripedHashSet<>(phf, threads * 4), keys,
+                    missing, threads);
+            concurrentThroughput("ConcurrentHashMap.newKeySet/" + threads, ConcurrentHashMap::newKeySet, keys, missing,
+                    threads);
+        }
+    }
+
+    /**
+     * Ogni thread inserisce la propria fetta di chiavi e poi cerca ogni chiave presente e una
+     * assente; riporta le operazioni al secondo dell'ultimo giro.
+     */
+    static <T> void concurrentThroughput(String name, Supplier<? extends Set<T>> factory, T[] keys, T[] missing,
+            int threads) {
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Set<T> set = factory.get();
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int from = (int) ((long) keys.length * t / threads);
+                int to = (int) ((long) keys.length * (t + 1) / threads);
+                workers[t] = new Thread(() -> {
+                    for (int i = from; i < to; i++) {
+                        set.add(keys[i]);
+                    }
+                    for (int i = from; i < to; i++) {
+                        if (!set.contains(keys[i])) {
+                            throw new AssertionError("Lost key " + keys[i]);
+                        }
+                        set.contains(missing[i]);
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1) {
+                System.out.printf("%-40s %8.1f Mops/s   (%d elements)%n", name, 3.0 * keys.length / elapsed * 1e3,
+                        set.size());
+            }
+        }
+    }
+
+    private static void forwarding() {
+        int threads = 4;
+        System.out.println("== Add latency with " + threads + " writers while the table grows (" + SIZE
+                + " random Integer keys, " + Runtime.getRuntime().availableProcessors() + " cores)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            concurrentAddLatencies("synchronized CollisionList",
+                    Collections.synchronizedSet(new CollisionListResizableHashTable<>(phf)), keys, threads, report);
+            concurrentAddLatencies("StripedHashSet", new StripedHashSet<>(phf, threads * 4), keys, threads, report);
+            concurrentAddLatencies("ConcurrentCollisionListHashTable", new ConcurrentCollisionListHashTable<>(phf),
+                    keys, threads, report);
+            concurrentAddLatencies("ConcurrentHashMap.newKeySet", ConcurrentHashMap.newKeySet(), keys, threads,
+                    report);
+        }
+    }
+
+    private static <T> void concurrentAddLatencies(String name, Set<T> set, T[] keys, int threads, boolean report) {
+        long[] latencies = new long[keys.length];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            workers[t] = new Thread(() -> {
+                for (int i = first; i < keys.length; i += threads) {
+                    long start = System.nanoTime();
+                    set.add(keys[i]);
+                    latencies[i] = System.nanoTime() - start;
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-40s %8.1f ms   p50 %6d ns   p99.9 %8d ns   max %6.2f ms%n", name, elapsed / 1e6,
+                    latencies[latencies.length / 2], latencies[(int) (latencies.length * 0.999)],
+                    latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static void frozen() {
+        System.out.println("== Frozen minimal perfect hash set vs source table (" + SIZE + " random Integer keys, "
+                + Runtime.getRuntime().availableProcessors() + " cores)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                new DivisionPrimaryHashFunction(), SIZE);
+        table.addAll(Arrays.asList(keys));
+        FrozenHashSet<Integer> frozen = null;
+        ForkJoinPool single = new ForkJoinPool(1);
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            long start = System.nanoTime();
+            single.submit(table::freeze).join();
+            long afterSingle = System.nanoTime();
+            frozen = table.freeze();
+            long afterParallel = System.nanoTime();
+            if (report) {
+                System.out.printf("%-40s %8.1f ms%n%-40s %8.1f ms   (%d threads)%n", "freeze() on 1 thread",
+                        (afterSingle - start) / 1e6, "freeze() on common pool", (afterParallel - afterSingle) / 1e6,
+                        ForkJoinPool.getCommonPoolParallelism());
+            }
+        }
+        single.shutdown();
+        System.out.printf("%-40s %8.2f bits/key   (%d levels, %d in fallback)%n", "hash metadata",
+                frozen.getBitsPerKey(), frozen.getLevels(), frozen.getFallbackSize());
+        lookups("CollisionListResizableHashTable", table, keys, missing);
+        lookups("FrozenHashSet", frozen, keys, missing);
+    }
+
+    private static <T> void lookups(String name, Set<T> set, T[] keys, T[] missing) {
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (T key : keys) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterHits = System.nanoTime();
+            for (T key : missing) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterMisses = System.nanoTime();
+            if (round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1) {
+                System.out.printf("%-40s hit %6.1f ns/op   miss %6.1f ns/op   (%d found)%n", name,
+                        (double) (afterHits - start) / keys.length, (double) (afterMisses - afterHits) / missing.length,
+                        found);
+            }
+        }
+    }
+
+    private static void champ() {
+        System.out.println("== CHAMP trie with O(1) snapshots vs copying a collision list table (" + SIZE
+                + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("CollisionListResizableHashTable", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("ChampHashSet (transient)", ChampHashSet::new, keys, missing);
+        // ogni 1000 modifiche un lettore chiede una copia stabile dell'insieme
+        int updates = Math.min(SIZE, 100_000);
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean report = round == WARMUP_ROUNDS + MEASURED_ROUNDS - 1;
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf, SIZE);
+            table.addAll(Arrays.asList(keys));
+            ChampHashSet<Integer> champ = new ChampHashSet<>();
+            champ.addAll(Arrays.asList(keys));
+            long start = System.nanoTime();
+            Set<Integer> copy = null;
+            for (int i = 0; i < updates; i++) {
+                if (i % 1000 == 0) {
+                    copy = new CollisionListResizableHashTable<>(phf, table.size());
+                    copy.addAll(table);
+                }
+                table.remove(keys[i]);
+                table.add(missing[i]);
+            }
+            long afterTable = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                if (i % 1000 == 0) {
+                    copy = champ.snapshot();
+                }
+                champ.remove(keys[i]);
+                champ.add(missing[i]);
+            }
+            long afterChamp = System.nanoTime();
+            if (report) {
+                System.out.printf("%-40s %8.1f ms   (%d updates, snapshot every 1000, last %d)%n",
+                        "CollisionList + full copy", (afterTable - start) / 1e6, 2 * updates, copy.size());
+                System.out.printf("%-40s %8.1f ms%n", "ChampHashSet + snapshot()", (afterChamp - afterTable) / 1e6);
+            }
+        }
+    }
+
+    private static void map() {
+        System.out.println("== Single-pass map updates: java.util.HashMap vs CollisionListResizableHashMap (" + SIZE
+                + " random Integer keys, counts over 1/8 of the keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        int distinct = Math.max(1, SIZE / 8);
+        List<Supplier<Map<Integer, Integer>>> factories = Arrays.asList(HashMap::new,
+                () -> new CollisionListResizableHashMap<>(new DivisionPrimaryHashFunction()));
+        List<String> names = Arrays.asList("java.util.HashMap", "CollisionListResizableHashMap");
+        for (int f = 0; f < factories.size(); f++) {
+            double put = 0;
+            double merge = 0;
+            double compute = 0;
+            long checksum = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                Map<Integer, Integer> map = factories.get(f).get();
+                long start = System.nanoTime();
+                for (Integer key : keys) {
+                    map.put(key, 1);
+                }
+                long afterPut = System.nanoTime();
+                Map<Integer, Integer> counts = factories.get(f).get();
+                for (int i = 0; i < keys.length; i++) {
+                    counts.merge(keys[i % distinct], 1, Integer::sum);
+                }
+                long afterMerge = System.nanoTime();
+                Map<Integer, Integer> groups = factories.get(f).get();
+                for (int i = 0; i < keys.length; i++) {
+                    groups.computeIfAbsent(keys[i % distinct], k -> k & 0xFF);
+                }
+                long afterCompute = System.nanoTime();
+                checksum += map.size() + counts.size() + groups.size();
+                if (round >= WARMUP_ROUNDS) {
+                    put += opsPerSecond(keys.length, afterPut - start);
+                    merge += opsPerSecond(keys.length, afterMerge - afterPut);
+                    compute += opsPerSecond(keys.length, afterCompute - afterMerge);
+                }
+            }
+            System.out.printf("%-40s put %8.2f Mops/s  merge %8.2f Mops/s  computeIfAbsent %8.2f Mops/s  (%d)%n",
+                    names.get(f), put / MEASURED_ROUNDS, merge / MEASURED_ROUNDS, compute / MEASURED_ROUNDS, checksum);
+        }
+    }
+
+    /**
+     * Confronta le funzioni hash primarie su chiavi sequenziali, a passo costante, a gruppi e
+     * casuali, con un numero di bucket primo e uno potenza di due. Per ogni combinazione riporta il
+     * chi quadrato della distribuzione nei bucket diviso per i gradi di libertà (circa 1 per una
+     * distribuzione uniforme casuale, molto più grande se le chiavi si ammassano) e il bucket più
+     * pieno; poi la lista più lunga che si forma davvero in CollisionListResizableHashTable, senza
+     * rimescolamento e con quello predefinito, e infine effetto valanga e tempo per chiamata.
+     */
+    private static void hashFunctions() {
+        int n = SIZE;
+        int powerOfTwo = Integer.highestOneBit(n);
+        int prime = powerOfTwo - 1;
+        while (!java.math.BigInteger.valueOf(prime).isProbablePrime(30)) {
+            prime--;
+        }
+        System.out.println("== Primary hash function quality (" + n + " keys, " + prime + " and " + powerOfTwo
+                + " buckets, universal seed " + SEED + ")");
+        Map<String, int[]> keySets = new LinkedHashMap<>();
+        int[] sequential = new int[n];
+        int[] strided = new int[n];
+        int[] clustered = new int[n];
+        Random random = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            sequential[i] = i;
+            strided[i] = i << 10;
+            // gruppi di 16 chiavi consecutive a partire da basi casuali
+            clustered[i] = i % 16 == 0 ? random.nextInt() : clustered[i - 1] + 1;
+        }
+        keySets.put("sequential", sequential);
+        keySets.put("strided 1024", strided);
+        keySets.put("clustered 16", clustered);
+        keySets.put("random", new Random(SEED + 1).ints(n).toArray());
+        List<PrimaryHashFunction> functions = Arrays.asList(new DivisionPrimaryHashFunction(),
+                new MultiplicationPrimaryHashFunction(), new UniversalPrimaryHashFunction(SEED));
+        System.out.printf("%-46s %14s %8s %14s %8s %12s %12s%n", "", "chi2/df prime", "max", "chi2/df pow2",
+                "max", "table raw", "table mixed");
+        for (PrimaryHashFunction function : functions) {
+            for (Map.Entry<String, int[]> keySet : keySets.entrySet()) {
+                int[] keys = keySet.getValue();
+                int[] primeCounts = bucketCounts(function, keys, prime);
+                int[] powerCounts = bucketCounts(function, keys, powerOfTwo);
+                Integer[] boxed = Arrays.stream(keys).boxed().toArray(Integer[]::new);
+                CollisionListResizableHashTable<Integer> raw = new CollisionListResizableHashTable<>(function, h -> h);
+                raw.addAll(Arrays.asList(boxed));
+                CollisionListResizableHashTable<Integer> mixed = new CollisionListResizableHashTable<>(function);
+                mixed.addAll(Arrays.asList(boxed));
+                System.out.printf("%-46s %14.2f %8d %14.2f %8d %12d %12d%n",
+                        function.getClass().getSimpleName() + " " + keySet.getKey(), chiSquaredPerDegree(primeCounts, n),
+                        Arrays.stream(primeCounts).max().getAsInt(), chiSquaredPerDegree(powerCounts, n),
+                        Arrays.stream(powerCounts).max().getAsInt(), chainLengthHistogram(raw.getTable()).length - 1,
+                        chainLengthHistogram(mixed.getTable()).length - 1);
+            }
+        }
+        int outputBits = 16;
+        System.out.println("== Avalanche on " + (1 << outputBits)
+                + " buckets (0 is ideal), time per call (not reproducible across runs)");
+        System.out.printf("%-46s %10s %10s %10s %10s%n", "", "mean bias", "worst bias", "max corr", "ns/hash");
+        for (PrimaryHashFunction function : functions) {
+            double[] avalanche = avalanche(function, outputBits, 20_000);
+            System.out.printf("%-46s %10.3f %10.3f %10.3f %10.2f%n", function.getClass().getSimpleName(), avalanche[0],
+                    avalanche[1], avalanche[2], forkedNanosPerHash(function.getClass().getName(), powerOfTwo));
+        }
+    }
+
+    static int[] bucketCounts(PrimaryHashFunction function, int[] keys, int m) {
+        int[] counts = new int[m];
+        for (int key : keys) {
+            counts[function.hash(key, m)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Chi quadrato rispetto alla distribuzione uniforme diviso per i gradi di libertà m - 1.
+     */
+    static double chiSquaredPerDegree(int[] counts, int n) {
+        double expected = (double) n / counts.length;
+        double chi = 0;
+        for (int c : counts) {
+            chi += (c - expected) * (c - expected) / expected;
+        }
+        return chi / (counts.length - 1);
+    }
+
+    /**
+     * Cambia uno alla volta i 32 bit di chiavi casuali e guarda i bit dell'indice su 2^outputBits
+     * bucket. Restituisce lo scarto medio e massimo dal 50% di probabilità di cambiamento di un bit
+     * in uscita, scalati in [0, 1], e la massima correlazione fra i cambiamenti di due bit in
+     * uscita (indipendenza dei bit).
+     */
+    static double[] avalanche(PrimaryHashFunction function, int outputBits, int samples) {
+        int m = 1 << outputBits;
+        long[][] flips = new long[32][outputBits];
+        long[][][] pairs = new long[32][outputBits][outputBits];
+        Random random = new Random(SEED);
+        for (int s = 0; s < samples; s++) {
+            int key = random.nextInt();
+            int h = function.hash(key, m);
+            for (int i = 0; i < 32; i++) {
+                int diff = h ^ function.hash(key ^ (1 << i), m);
+                for (int j = 0; j < outputBits; j++) {
+                    if ((diff >>> j & 1) != 0) {
+                        flips[i][j]++;
+                        for (int k = j + 1; k < outputBits; k++) {
+                            if ((diff >>> k & 1) != 0) {
+                                pairs[i][j][k]++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        double sumBias = 0;
+        double worstBias = 0;
+        double worstCorrelation = 0;
+        for (int i = 0; i < 32; i++) {
+            for (int j = 0; j < outputBits; j++) {
+                double pj = (double) flips[i][j] / samples;
+                double bias = Math.abs(2 * pj - 1);
+                sumBias += bias;
+                worstBias = Math.max(worstBias, bias);
+                for (int k = j + 1; k < outputBits; k++) {
+                    double pk = (double) flips[i][k] / samples;
+                    double variance = pj * (1 - pj) * pk * (1 - pk);
+                    // un bit che non cambia mai (o sempre) non è correlato a nulla
+                    if (variance > 0) {
+                        double correlation = ((double) pairs[i][j][k] / samples - pj * pk) / Math.sqrt(variance);
+                        worstCorrelation = Math.max(worstCorrelation, Math.abs(correlation));
+                    }
+                }
+            }
+        }
+        return new double[] { sumBias / (32 * outputBits), worstBias, worstCorrelation };
+    }
+
+    /**
+     * Misura il tempo per chiamata in una JVM separata, come i fork di JMH: nello stesso processo
+     * la chiamata a PrimaryHashFunction.hash vedrebbe più implementazioni e diventerebbe
+     * megamorfica, penalizzando le funzioni misurate per ultime.
+     */
+    private static double forkedNanosPerHash(String className, int m) {
+        String launcher = System.getProperty("java.home") + java.io.File.separator + "bin" + java.io.File.separator
+                + "java";
+        ProcessBuilder builder = new ProcessBuilder(launcher, "-cp", System.getProperty("java.class.path"),
+                HashSetBenchmark.class.getName(), HASH_TIMING, className, Integer.toString(m));
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        try {
+            Process process = builder.start();
+            String output = new String(process.getInputStream().readAllBytes()).trim();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Hash timing failed for " + className);
+            }
+            return Double.parseDouble(output);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double nanosPerHash(String className, int m) {
+        PrimaryHashFunction function;
+        try {
+            Class<?> type = Class.forName(className);
+            // le funzioni con seme vengono costruite con SEED, come nel processo padre
+            function = SeededPrimaryHashFunction.class.isAssignableFrom(type)
+                    ? (PrimaryHashFunction) type.getDeclaredConstructor(long.class).newInstance(SEED)
+                    : (PrimaryHashFunction) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate " + className, e);
+        }
+        int[] keys = new Random(SEED).ints(1 << 16).toArray();
+        int repetitions = 200;
+        double total = 0;
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < repetitions; r++) {
+                for (int key : keys) {
+                    sink += function.hash(key, m);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                total += (double) elapsed / ((long) repetitions * keys.length);
+            }
+        }
+        // la somma viene usata, così il JIT non può eliminare le chiamate
+        if (sink == 42) {
+            System.err.println(sink);
+        }
+        return total / MEASURED_ROUNDS;
+    }
+
+    private static long[] gcCountAndTime() {
+        long count = 0;
+        long time = 0;
+        for (java.lang.management.GarbageCollectorMXBean gc : java.lang.management.ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, time };
+    }
+
+    private static void printGc(String name, long elapsedNanos, long[] before, long[] after, int size) {
+        System.out.printf("%-40s build+gc %8.1f ms   collections %4d   gc time %6d ms (%d)%n", name,
+                elapsedNanos / 1e6, after[0] - before[0], after[1] - before[1], size);
+    }
+
+    /**
+     * Memoria occupata dall'oggetto costruito da builder, misurata come differenza dell'heap usato.
+     */
+    static long retainedBytes(Supplier<Object> builder) {
+        long before = usedHeapAfterGc();
+        Object built = builder.get();
+        long after = usedHeapAfterGc();
+        java.lang.ref.Reference.reachabilityFence(built);
+        return after - before;
+    }
+
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void mixing() {
+        int side = (int) Math.sqrt(SIZE);
+        System.out.println("== Chain lengths by mixer and primary hash function (" + SIZE + " sequential Integer, "
+                + side + "x" + side + " grid keys)");
+        Integer[] sequential = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            sequential[i] = i;
+        }
+        // coordinate impacchettate in un int: gli hashCode sono distinti ma i bit bassi si ripetono
+        Integer[] grid = new Integer[side * side];
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                grid[x * side + y] = (x << 16) | y;
+            }
+        }
+        Map<String, HashMixer> mixers = new LinkedHashMap<>();
+        mixers.put("none", h -> h);
+        mixers.put("murmur3", new Murmur3HashMixer());
+        mixers.put("xxhash", new XXHashMixer());
+        Map<String, PrimaryHashFunction> functions = new LinkedHashMap<>();
+        functions.put("division", new DivisionPrimaryHashFunction());
+        functions.put("multiplication", new MultiplicationPrimaryHashFunction());
+        for (Map.Entry<String, PrimaryHashFunction> function : functions.entrySet()) {
+            for (Map.Entry<String, HashMixer> mixer : mixers.entrySet()) {
+                String name = function.getKey() + "/" + mixer.getKey();
+                CollisionListResizableHashTable<Integer> seq = new CollisionListResizableHashTable<>(
+                        function.getValue(), mixer.getValue());
+                seq.addAll(Arrays.asList(sequential));
+                printChainLengths("sequential " + name, chainLengthHistogram(seq.getTable()));
+                CollisionListResizableHashTable<Integer> points = new CollisionListResizableHashTable<>(
+                        function.getValue(), mixer.getValue());
+                points.addAll(Arrays.asList(grid));
+                printChainLengths("grid " + name, chainLengthHistogram(points.getTable()));
+            }
+        }
+    }
+
+    private static void statistics() {
+        System.out.println("== Statistics overhead (" + SIZE + " random Integer keys)");
+        Integer[] keys = randomKeys(SIZE, SEED);
+        Integer[] missing = randomKeys(SIZE, SEED + 1);
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        throughput("statistics disabled", () -> new CollisionListResizableHashTable<>(phf), keys, missing);
+        throughput("statistics enabled", () -> {
+            CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(phf);
+            table.enableStatistics();
+            return table;
+        }, keys, missing);
+    }
+
+    /**
+     * L'elemento in posizione k conta i bucket che contengono esattamente k elementi.
+     */
+    static int[] chainLengthHistogram(Object[] table) {
+        int[] histogram = new int[1];
+        for (Object bucket : table) {
+            int length = 0;
+            for (CollisionListResizableHashTable.Node<?> node = CollisionListResizableHashTable.firstNode(bucket);
+                    node != null; node = node.next) {
+                length++;
+            }
+            if (length >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
+    static void printChainLengths(String name, int[] histogram) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < Math.min(histogram.length, 8); k++) {
+            sb.append(String.format(" %d:%d", k, histogram[k]));
+        }
+        if (histogram.length > 8) {
+            sb.append(" ...");
+        }
+        System.out.printf("%-32s max %5d  p99 %3d |%s%n", name, histogram.length - 1, percentile(histogram, 0.99),
+                sb);
+    }
+
+    /**
+     * Per una tabella a liste di collisione, il k-esimo nodo di una lista si trova con k confronti.
+     */
+    static int[] chainProbeLengthHistogram(Object[] table) {
+        int[] histogram = new int[1];
+        for (Object bucket : table) {
+            int position = 0;
+            for (CollisionListResizableHashTable.Node<?> node = CollisionListResizableHashTable.firstNode(bucket);
+                    node != null; node = node.next) {
+                position++;
+                if (position >= histogram.length) {
+                    histogram = Arrays.copyOf(histogram, position + 1);
+                }
+                histogram[position]++;
+            }
+        }
+        return histogram;
+    }
+
+    static double mean(int[] histogram) {
+        long count = 0;
+        long total = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            count += histogram[k];
+            total += (long) k * histogram[k];
+        }
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    static int percentile(int[] histogram, double percentile) {
+        long count = 0;
+        for (int h : histogram) {
+            count += h;
+        }
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            seen += histogram[k];
+            if (seen >= rank) {
+                return k;
+            }
+        }
+        return 0;
+    }
+
+    static Integer[] randomKeys(int n, long seed) {
+        Random random = new Random(seed);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        return keys;
+    }
+
+    static <T> void throughput(String name, Supplier<? extends Set<T>> factory, T[] keys, T[] missing) {
+        double insert = 0;
+        double hit = 0;
+        double miss = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Set<T> set = factory.get();
+            long start = System.nanoTime();
+            for (T key : keys) {
+                set.add(key);
+            }
+            long afterInsert = System.nanoTime();
+            int found = 0;
+            for (T key : keys) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterHit = System.nanoTime();
+            for (T key : missing) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            long afterMiss = System.nanoTime();
+            if (found < set.size()) {
+                throw new IllegalStateException(name + " lost elements");
+            }
+            if (round >= WARMUP_ROUNDS) {
+                insert += opsPerSecond(keys.length, afterInsert - start);
+                hit += opsPerSecond(keys.length, afterHit - afterInsert);
+                miss += opsPerSecond(missing.length, afterMiss - afterHit);
+            }
+        }
+        System.out.printf("%-40s insert %8.2f Mops/s   hit %8.2f Mops/s   miss %8.2f Mops/s%n", name,
+                insert / MEASURED_ROUNDS, hit / MEASURED_ROUNDS, miss / MEASURED_ROUNDS);
+    }
+
+    static double opsPerSecond(int ops, long nanos) {
+        return ops * 1e3 / Math.max(nanos, 1);
+    }
+
+}
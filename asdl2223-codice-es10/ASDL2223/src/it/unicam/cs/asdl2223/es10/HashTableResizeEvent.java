@@ -0,0 +1,25 @@
+package it.unicam.cs.asdl2223.es10;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("it.unicam.cs.asdl2223.es10.HashTableResize")
+@Label("Hash Table Resize")
+@Category({ "ASDL2223", "Hash Tables" })
+public class HashTableResizeEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Old Capacity")
+    public int oldCapacity;
+
+    @Label("New Capacity")
+    public int newCapacity;
+
+    @Label("Size")
+    public int size;
+
+}
@@ -0,0 +1,205 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Statistiche di una CollisionListResizableHashTable, attive solo dopo enableStatistics(). Gli
+ * istogrammi sono calcolati su richiesta scandendo la tabella; i contatori sono aggiornati dal
+ * thread che usa la tabella, quindi letti da JMX sono solo approssimativamente aggiornati.
+ */
+public class HashTableStatistics implements HashTableStatisticsMBean {
+
+    private final CollisionListResizableHashTable<?> hashTable;
+
+    private ObjectName registeredName;
+
+    private long resizeCount;
+
+    private long totalResizeTimeNanos;
+
+    private long maxResizeTimeNanos;
+
+    private long successfulLookups;
+
+    private long successfulProbes;
+
+    private long unsuccessfulLookups;
+
+    private long unsuccessfulProbes;
+
+    HashTableStatistics(CollisionListResizableHashTable<?> hashTable) {
+        this.hashTable = hashTable;
+    }
+
+    void recordLookup(boolean found, int probes) {
+        if (found) {
+            successfulLookups++;
+            successfulProbes += probes;
+        } else {
+            unsuccessfulLookups++;
+            unsuccessfulProbes += probes;
+        }
+    }
+
+    /**
+     * Evento JFR da creare prima di spostare i bucket: begin() ne fissa l'inizio, così la durata
+     * registrata è quella del ridimensionamento.
+     */
+    static HashTableResizeEvent beginResize() {
+        HashTableResizeEvent event = new HashTableResizeEvent();
+        event.begin();
+        return event;
+    }
+
+    void recordResize(int oldCapacity, int newCapacity, long startNanos, HashTableResizeEvent event) {
+        long elapsed = System.nanoTime() - startNanos;
+        resizeCount++;
+        totalResizeTimeNanos += elapsed;
+        maxResizeTimeNanos = Math.max(maxResizeTimeNanos, elapsed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = registeredName == null ? hashTable.toString() : registeredName.toString();
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = hashTable.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Registra le statistiche sul server MBean della piattaforma con il nome
+     * it.unicam.cs.asdl2223.es10:type=HashTableStatistics,name=&lt;name&gt;.
+     */
+    public synchronized void register(String name) throws JMException {
+        if (registeredName != null) {
+            throw new IllegalStateException("Statistics already registered as " + registeredName);
+        }
+        ObjectName objectName = new ObjectName("it.unicam.cs.asdl2223.es10:type=HashTableStatistics,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registeredName = objectName;
+    }
+
+    public synchronized void unregister() throws JMException {
+        if (registeredName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+            registeredName = null;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return hashTable.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return hashTable.getTable().length;
+    }
+
+    /**
+     * L'elemento in posizione k conta i bucket che contengono esattamente k elementi.
+     */
+    @Override
+    public int[] getBucketOccupancyHistogram() {
+        int[] histogram = new int[1];
+        Object[] oldTable = hashTable.getOldTable();
+        if (oldTable != null) {
+            histogram = addBuckets(histogram, oldTable);
+        }
+        return addBuckets(histogram, hashTable.getTable());
+    }
+
+    private static int[] addBuckets(int[] histogram, Object[] table) {
+        for (Object bucket : table) {
+            int length = 0;
+            if (bucket instanceof CollisionListResizableHashTable.TreeBin) {
+                length = ((CollisionListResizableHashTable.TreeBin<?>) bucket).count;
+            } else {
+                for (CollisionListResizableHashTable.Node<?> node = CollisionListResizableHashTable
+                        .firstNode(bucket); node != null; node = node.next) {
+                    length++;
+                }
+            }
+            if (length >= histogram.length) {
+                histogram = java.util.Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
+    @Override
+    public int getMaxChainLength() {
+        return getBucketOccupancyHistogram().length - 1;
+    }
+
+    /**
+     * Lunghezza media delle liste non vuote.
+     */
+    @Override
+    public double getMeanChainLength() {
+        int[] histogram = getBucketOccupancyHistogram();
+        long buckets = 0;
+        long elements = 0;
+        for (int k = 1; k < histogram.length; k++) {
+            buckets += histogram[k];
+            elements += (long) k * histogram[k];
+        }
+        return buckets == 0 ? 0 : (double) elements / buckets;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public long getTotalResizeTimeNanos() {
+        return totalResizeTimeNanos;
+    }
+
+    @Override
+    public long getMaxResizeTimeNanos() {
+        return maxResizeTimeNanos;
+    }
+
+    @Override
+    public long getSuccessfulLookups() {
+        return successfulLookups;
+    }
+
+    @Override
+    public long getUnsuccessfulLookups() {
+        return unsuccessfulLookups;
+    }
+
+    @Override
+    public double getAverageProbesPerSuccessfulLookup() {
+        return successfulLookups == 0 ? 0 : (double) successfulProbes / successfulLookups;
+    }
+
+    @Override
+    public double getAverageProbesPerUnsuccessfulLookup() {
+        return unsuccessfulLookups == 0 ? 0 : (double) unsuccessfulProbes / unsuccessfulLookups;
+    }
+
+    @Override
+    public void reset() {
+        resizeCount = 0;
+        totalResizeTimeNanos = 0;
+        maxResizeTimeNanos = 0;
+        successfulLookups = 0;
+        successfulProbes = 0;
+        unsuccessfulLookups = 0;
+        unsuccessfulProbes = 0;
+    }
+
+}
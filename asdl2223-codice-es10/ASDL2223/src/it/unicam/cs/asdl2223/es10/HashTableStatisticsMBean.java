@@ -0,0 +1,29 @@
+package it.unicam.cs.asdl2223.es10;
+
+public interface HashTableStatisticsMBean {
+    public int getSize();
+
+    public int getCapacity();
+
+    public int[] getBucketOccupancyHistogram();
+
+    public int getMaxChainLength();
+
+    public double getMeanChainLength();
+
+    public long getResizeCount();
+
+    public long getTotalResizeTimeNanos();
+
+    public long getMaxResizeTimeNanos();
+
+    public long getSuccessfulLookups();
+
+    public long getUnsuccessfulLookups();
+
+    public double getAverageProbesPerSuccessfulLookup();
+
+    public double getAverageProbesPerUnsuccessfulLookup();
+
+    public void reset();
+}
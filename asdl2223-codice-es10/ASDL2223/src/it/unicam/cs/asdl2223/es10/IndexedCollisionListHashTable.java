@@ -0,0 +1,336 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+
+/**
+ * Tabella hash con liste di collisione memorizzate in array paralleli invece che in nodi: la lista
+ * del bucket b parte dalla voce head[b] e prosegue con next. Gli indici sono salvati aumentati di
+ * uno, così 0 indica la fine della lista e gli array appena allocati non vanno inizializzati. Le
+ * voci liberate da remove formano una lista libera, riusata dagli inserimenti successivi.
+ */
+public class IndexedCollisionListHashTable<E> implements Set<E> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private int size;
+    private int[] head;
+    private int[] next;
+    private Object[] keys;
+    private int[] hashes;
+    // voci mai usate a partire da top; quelle liberate sono in freeList
+    private int top;
+    private int freeList;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+    private int modCount;
+
+    private int getCurrentCapacity() {
+        return this.head.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    public IndexedCollisionListHashTable(PrimaryHashFunction phf) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = new Murmur3HashMixer();
+        allocate(INITIAL_CAPACITY);
+        this.modCount = 0;
+    }
+
+    private void allocate(int capacity) {
+        this.head = new int[capacity];
+        int entries = (int) (capacity * LOAD_FACTOR);
+        this.next = new int[entries];
+        this.keys = new Object[entries];
+        this.hashes = new int[entries];
+        this.top = 0;
+        this.freeList = 0;
+        this.size = 0;
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(Object element, int h) {
+        for (int e = head[phf.hash(h, head.length)]; e != 0; e = next[e - 1]) {
+            if (hashes[e - 1] == h && keys[e - 1].equals(element)) {
+                return e - 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return indexOf(element, hash(element)) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (int e = 0; e < top; e++) {
+            if (keys[e] != null) {
+                result[i++] = keys[e];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (int e = 0; e < top; e++) {
+            if (keys[e] != null) {
+                a[i++] = (T) keys[e];
+            }
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(e);
+        if (indexOf(e, h) >= 0) {
+            return false;
+        }
+        if (size + 1 > getCurrentThreshold()) {
+            resize();
+        }
+        int entry;
+        if (freeList != 0) {
+            entry = freeList - 1;
+            freeList = next[entry];
+        } else {
+            entry = top++;
+        }
+        keys[entry] = e;
+        hashes[entry] = h;
+        int bucket = phf.hash(h, head.length);
+        next[entry] = head[bucket];
+        head[bucket] = entry + 1;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Raddoppia i bucket e le voci. Le voci vengono compattate all'inizio degli array, così la
+     * lista libera si svuota; le liste sono ricostruite riusando gli hash memorizzati.
+     */
+    private void resize() {
+        int capacity = head.length * 2;
+        int entries = (int) (capacity * LOAD_FACTOR);
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int oldTop = top;
+        head = new int[capacity];
+        next = new int[entries];
+        keys = new Object[entries];
+        hashes = new int[entries];
+        int n = 0;
+        for (int e = 0; e < oldTop; e++) {
+            if (oldKeys[e] != null) {
+                keys[n] = oldKeys[e];
+                hashes[n] = oldHashes[e];
+                int bucket = phf.hash(hashes[n], capacity);
+                next[n] = head[bucket];
+                head[bucket] = n + 1;
+                n++;
+            }
+        }
+        top = n;
+        freeList = 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(o);
+        int bucket = phf.hash(h, head.length);
+        int previous = 0;
+        for (int e = head[bucket]; e != 0; previous = e, e = next[e - 1]) {
+            if (hashes[e - 1] == h && keys[e - 1].equals(o)) {
+                unlink(bucket, previous, e - 1);
+                size--;
+                modCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unlink(int bucket, int previous, int entry) {
+        if (previous == 0) {
+            head[bucket] = next[entry];
+        } else {
+            next[previous - 1] = next[entry];
+        }
+        keys[entry] = null;
+        next[entry] = freeList;
+        freeList = entry + 1;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (int bucket = 0; bucket < head.length; bucket++) {
+            int previous = 0;
+            int e = head[bucket];
+            while (e != 0) {
+                int following = next[e - 1];
+                if (!c.contains(keys[e - 1])) {
+                    unlink(bucket, previous, e - 1);
+                    size--;
+                    modified = true;
+                } else {
+                    previous = e;
+                }
+                e = following;
+            }
+        }
+        if (modified) {
+            modCount++;
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        this.modCount++;
+    }
+
+    private class Itr implements Iterator<E> {
+        private int numeroModificheAtteso;
+        // le voci sono contigue: si scorre l'array delle chiavi, senza visitare i bucket vuoti
+        private int currentEntry;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentEntry = findNextEntry(0);
+        }
+
+        private int findNextEntry(int from) {
+            while (from < top && keys[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentEntry < top;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            E item = (E) keys[currentEntry];
+            currentEntry = findNextEntry(currentEntry + 1);
+            return item;
+        }
+    }
+
+    protected int[] getHead() {
+        return this.head;
+    }
+
+    protected Object[] getKeys() {
+        return this.keys;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
@@ -0,0 +1,98 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class IndexedCollisionListHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new IndexedCollisionListHashTable<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new IndexedCollisionListHashTable<>(multiplicationHash));
+    }
+
+    private void addContainsRemove(IndexedCollisionListHashTable<Integer> table) {
+        Set<Integer> expected = RandomSetOperations.check(table, 17, 50000, 4000);
+        RandomSetOperations.assertIteratesOnce(expected, table);
+    }
+
+    @Test
+    void divisionHash_testRemovedSlotsAreReused() {
+        IndexedCollisionListHashTable<Integer> table = new IndexedCollisionListHashTable<>(divisionHash);
+        for (int i = 0; i < 10; i++) {
+            table.add(i);
+        }
+        Object[] keys = table.getKeys();
+        for (int i = 0; i < 10000; i++) {
+            table.remove(i % 10);
+            table.add(i % 10);
+        }
+        assertSame(keys, table.getKeys());
+        assertEquals(10, table.size());
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        IndexedCollisionListHashTable<Integer> table = new IndexedCollisionListHashTable<>(divisionHash);
+        for (int i = 0; i < 12; i++) {
+            table.add(i);
+        }
+        assertEquals(16, table.getHead().length);
+        table.add(12);
+        assertEquals(32, table.getHead().length);
+        for (int i = 0; i <= 12; i++) {
+            assertTrue(table.contains(i));
+        }
+    }
+
+    @Test
+    void multiplicationHash_testRetainAllFreesSlots() {
+        IndexedCollisionListHashTable<Integer> table = new IndexedCollisionListHashTable<>(multiplicationHash);
+        Set<Integer> evens = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+            if (i % 2 == 0) {
+                evens.add(i);
+            }
+        }
+        Object[] keys = table.getKeys();
+        assertTrue(table.retainAll(evens));
+        assertEquals(500, table.size());
+        // le voci liberate da retainAll tornano nella lista libera e bastano per 500 nuovi elementi
+        for (int i = 1000; i < 1500; i++) {
+            table.add(i);
+        }
+        assertSame(keys, table.getKeys());
+        for (int i = 0; i < 1500; i++) {
+            assertEquals(i % 2 == 0 || i >= 1000, table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        IndexedCollisionListHashTable<Integer> table = new IndexedCollisionListHashTable<>(divisionHash);
+        table.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+}
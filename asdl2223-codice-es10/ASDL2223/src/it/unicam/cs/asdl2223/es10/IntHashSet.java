@@ -0,0 +1,189 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.function.IntConsumer;
+
+public class IntHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    // le celle libere contengono 0, la presenza della chiave 0 è registrata a parte
+    private static final int FREE_KEY = 0;
+    private int size;
+    private int[] table;
+    private boolean containsFreeKey;
+    private final PrimaryHashFunction phf;
+
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    public IntHashSet(PrimaryHashFunction phf) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf;
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsFreeKey = false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(int key) {
+        int m = table.length;
+        int index = phf.hash(key, m);
+        while (table[index] != FREE_KEY) {
+            if (table[index] == key) {
+                return index;
+            }
+            if (++index == m) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE_KEY) {
+            return containsFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public boolean add(int key) {
+        if (key == FREE_KEY) {
+            if (containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = true;
+            size++;
+            return true;
+        }
+        int m = table.length;
+        int index = phf.hash(key, m);
+        while (table[index] != FREE_KEY) {
+            if (table[index] == key) {
+                return false;
+            }
+            if (++index == m) {
+                index = 0;
+            }
+        }
+        table[index] = key;
+        size++;
+        if (size > getCurrentThreshold()) {
+            resize();
+        }
+        return true;
+    }
+
+    private void resize() {
+        int[] oldTable = table;
+        table = new int[oldTable.length * 2];
+        int m = table.length;
+        for (int key : oldTable) {
+            if (key != FREE_KEY) {
+                int index = phf.hash(key, m);
+                while (table[index] != FREE_KEY) {
+                    if (++index == m) {
+                        index = 0;
+                    }
+                }
+                table[index] = key;
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        if (key == FREE_KEY) {
+            if (!containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = false;
+            size--;
+            return true;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        deleteAt(index);
+        size--;
+        return true;
+    }
+
+    private void deleteAt(int gap) {
+        // cancellazione senza marcatori: si riempie il buco con le chiavi successive che lo
+        // attraversano nella loro sequenza di scansione
+        int m = table.length;
+        int index = gap;
+        while (true) {
+            if (++index == m) {
+                index = 0;
+            }
+            int key = table[index];
+            if (key == FREE_KEY) {
+                break;
+            }
+            int home = phf.hash(key, m);
+            boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                table[gap] = key;
+                gap = index;
+            }
+        }
+        table[gap] = FREE_KEY;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        if (containsFreeKey) {
+            action.accept(FREE_KEY);
+        }
+        for (int key : table) {
+            if (key != FREE_KEY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        if (containsFreeKey) {
+            result[i++] = FREE_KEY;
+        }
+        for (int key : table) {
+            if (key != FREE_KEY) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsFreeKey = false;
+    }
+
+    protected int[] getTable() {
+        return this.table;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
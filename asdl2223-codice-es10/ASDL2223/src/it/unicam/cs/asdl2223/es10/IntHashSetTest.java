@@ -0,0 +1,84 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class IntHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new IntHashSet(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new IntHashSet(multiplicationHash));
+    }
+
+    private void addContainsRemove(IntHashSet set) {
+        // chiavi in [-2000, 2000): anche 0, registrata a parte, viene inserita e rimossa
+        RandomSetOperations.check(3, 50000, 4000, v -> set.add(v - 2000), v -> set.remove(v - 2000),
+                v -> set.contains(v - 2000), set::size);
+    }
+
+    @Test
+    void divisionHash_testZeroKey() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void divisionHash_testExtremeKeys() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertTrue(set.add(-1));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertTrue(set.remove(-1));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        for (int i = 1; i <= 8; i++) {
+            set.add(i);
+        }
+        assertEquals(16, set.getTable().length);
+        set.add(9);
+        assertEquals(32, set.getTable().length);
+    }
+
+    @Test
+    void multiplicationHash_testForEachAndToArray() {
+        IntHashSet set = new IntHashSet(multiplicationHash);
+        int vals[] = { 12, 42, 0, 5, -32, 777, 11 };
+        for (int val : vals) {
+            set.add(val);
+        }
+        int[] sum = { 0 };
+        set.forEach(val -> sum[0] += val);
+        assertEquals(Arrays.stream(vals).sum(), sum[0]);
+        int[] array = set.toArray();
+        Arrays.sort(array);
+        int[] sorted = vals.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, array);
+    }
+
+}
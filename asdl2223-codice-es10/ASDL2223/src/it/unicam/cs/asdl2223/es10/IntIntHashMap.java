@@ -0,0 +1,240 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class IntIntHashMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    // le celle libere hanno chiave 0, la chiave 0 e il suo valore sono registrati a parte
+    private static final int FREE_KEY = 0;
+    private int size;
+    private int[] keys;
+    private int[] values;
+    private boolean containsFreeKey;
+    private int freeKeyValue;
+    private final int noEntryValue;
+    private final PrimaryHashFunction phf;
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        public void accept(int key, int value);
+    }
+
+    private int getCurrentCapacity() {
+        return this.keys.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    public IntIntHashMap(PrimaryHashFunction phf) {
+        this(phf, 0);
+    }
+
+    public IntIntHashMap(PrimaryHashFunction phf, int noEntryValue) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf;
+        this.noEntryValue = noEntryValue;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsFreeKey = false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int getNoEntryValue() {
+        return this.noEntryValue;
+    }
+
+    private int indexOf(int key) {
+        int m = keys.length;
+        int index = phf.hash(key, m);
+        while (keys[index] != FREE_KEY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            if (++index == m) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return containsFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return containsFreeKey ? freeKeyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int previous = containsFreeKey ? freeKeyValue : noEntryValue;
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return previous;
+        }
+        int index = findSlot(key);
+        if (keys[index] == key) {
+            int previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        insertAt(index, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * Somma increment al valore associato a key (noEntryValue se assente) e restituisce il nuovo
+     * valore, con una sola scansione della tabella.
+     */
+    public int addTo(int key, int increment) {
+        if (key == FREE_KEY) {
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                freeKeyValue = noEntryValue;
+                size++;
+            }
+            freeKeyValue += increment;
+            return freeKeyValue;
+        }
+        int index = findSlot(key);
+        if (keys[index] == key) {
+            values[index] += increment;
+            return values[index];
+        }
+        int value = noEntryValue + increment;
+        insertAt(index, key, value);
+        return value;
+    }
+
+    private int findSlot(int key) {
+        int m = keys.length;
+        int index = phf.hash(key, m);
+        while (keys[index] != FREE_KEY && keys[index] != key) {
+            if (++index == m) {
+                index = 0;
+            }
+        }
+        return index;
+    }
+
+    private void insertAt(int index, int key, int value) {
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        if (size > getCurrentThreshold()) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        int m = keys.length;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int index = phf.hash(oldKeys[i], m);
+                while (keys[index] != FREE_KEY) {
+                    if (++index == m) {
+                        index = 0;
+                    }
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!containsFreeKey) {
+                return noEntryValue;
+            }
+            containsFreeKey = false;
+            size--;
+            return freeKeyValue;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return noEntryValue;
+        }
+        int previous = values[index];
+        deleteAt(index);
+        size--;
+        return previous;
+    }
+
+    private void deleteAt(int gap) {
+        int m = keys.length;
+        int index = gap;
+        while (true) {
+            if (++index == m) {
+                index = 0;
+            }
+            int key = keys[index];
+            if (key == FREE_KEY) {
+                break;
+            }
+            int home = phf.hash(key, m);
+            boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = FREE_KEY;
+    }
+
+    public void forEach(IntIntConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        if (containsFreeKey) {
+            action.accept(FREE_KEY, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsFreeKey = false;
+    }
+
+    protected int[] getKeys() {
+        return this.keys;
+    }
+
+}
@@ -0,0 +1,76 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntIntHashMapTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testPutGetRemove() {
+        putGetRemove(new IntIntHashMap(divisionHash, -1));
+    }
+
+    @Test
+    void multiplicationHash_testPutGetRemove() {
+        putGetRemove(new IntIntHashMap(multiplicationHash, -1));
+    }
+
+    private void putGetRemove(IntIntHashMap map) {
+        Random random = new Random(5);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(4000) - 2000;
+            if (random.nextInt(3) > 0) {
+                int value = random.nextInt();
+                assertEquals((int) expected.getOrDefault(key, -1), map.put(key, value));
+                expected.put(key, value);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, -1), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -2000; key < 2000; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals((int) expected.getOrDefault(key, -1), map.get(key));
+        }
+    }
+
+    @Test
+    void divisionHash_testAddTo() {
+        IntIntHashMap map = new IntIntHashMap(divisionHash);
+        for (int i = 0; i < 1000; i++) {
+            map.addTo(i % 10, 1);
+        }
+        assertEquals(10, map.size());
+        for (int key = 0; key < 10; key++) {
+            assertEquals(100, map.get(key));
+        }
+        assertEquals(7, map.getOrDefault(10, 7));
+    }
+
+    @Test
+    void divisionHash_testForEach() {
+        IntIntHashMap map = new IntIntHashMap(divisionHash);
+        for (int key = 0; key < 100; key++) {
+            map.put(key, key * 2);
+        }
+        long[] sums = { 0, 0 };
+        map.forEach((key, value) -> {
+            sums[0] += key;
+            sums[1] += value;
+        });
+        assertEquals(4950, sums[0]);
+        assertEquals(9900, sums[1]);
+    }
+
+}
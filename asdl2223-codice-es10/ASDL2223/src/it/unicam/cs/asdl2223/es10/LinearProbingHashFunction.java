@@ -0,0 +1,19 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class LinearProbingHashFunction implements OpenAddressingHashFunction {
+
+    private final PrimaryHashFunction phf;
+
+    public LinearProbingHashFunction(PrimaryHashFunction phf) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf;
+    }
+
+    @Override
+    public int hash(int key, int i, int m) {
+        return (int) (((long) phf.hash(key, m) + i) % m);
+    }
+
+}
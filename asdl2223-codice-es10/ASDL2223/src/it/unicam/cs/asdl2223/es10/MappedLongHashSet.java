@@ -0,0 +1,436 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Insieme di chiavi long persistente, memorizzato in un file mappato in memoria. Riaprire il file
+ * costa O(1): le pagine vengono caricate dal sistema operativo solo quando servono.
+ *
+ * Il file contiene un'intestazione, l'array delle chiavi e un byte di stato per cella. Ogni
+ * modifica diventa visibile con la sola scrittura del byte di stato, dopo quella della chiave.
+ * Alla prima modifica l'intestazione viene marcata come sporca e resa persistente; commit()
+ * scrive su disco le celle, poi i contatori, e toglie il marchio. Un file riaperto ancora sporco
+ * viene ricontato. L'ingrandimento scrive una nuova tabella in un file temporaneo, lo sostituisce
+ * con un rinomino atomico e rende persistente la directory.
+ *
+ * Se termina solo il processo, le pagine restano al sistema operativo e ogni modifica completata
+ * sopravvive. Se si spegne la macchina è garantito solo ciò che è stato scritto con commit():
+ * chiavi e byte di stato stanno in pagine diverse, scritte su disco in un ordine qualsiasi, e una
+ * cella modificata dopo l'ultimo commit può risultare persa o FULL con una chiave vecchia. Il file va riaperto con la stessa funzione hash primaria e, se questa ha un
+ * seme, con lo stesso seme: l'intestazione conserva la classe e un'impronta dei valori della
+ * funzione, controllate a ogni apertura.
+ */
+public class MappedLongHashSet implements AutoCloseable {
+    private static final long MAGIC = 0x4153444C48534554L;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int USED_OFFSET = 20;
+    private static final int DIRTY_OFFSET = 24;
+    private static final int PHF_OFFSET = 28;
+    private static final int PHF_FINGERPRINT_OFFSET = 32;
+    // primo minore di 2^31: l'impronta usa quasi tutti i bit del valore della funzione
+    private static final int FINGERPRINT_BUCKETS = 2147483629;
+    private static final int FINGERPRINT_PROBES = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    // la regione mappata è indicizzata con un int: 9 byte per cella
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+    private final Path path;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+    private int used;
+    private boolean dirty;
+    private final int maximumCapacity;
+
+    private MappedLongHashSet(Path path, PrimaryHashFunction phf, int maximumCapacity) {
+        this.path = path;
+        this.phf = phf;
+        this.mixer = new Murmur3HashMixer();
+        this.maximumCapacity = maximumCapacity;
+    }
+
+    /**
+     * Apre l'insieme memorizzato in path, creando il file se non esiste.
+     */
+    public static MappedLongHashSet open(Path path, PrimaryHashFunction phf) throws IOException {
+        return open(path, phf, MAXIMUM_CAPACITY);
+    }
+
+    /**
+     * Come open(path, phf), con un limite di capacità più basso: permette di provare il
+     * comportamento a capacità massima senza file da oltre un gigabyte.
+     */
+    static MappedLongHashSet open(Path path, PrimaryHashFunction phf, int maximumCapacity) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("Path cannot be null");
+        }
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (maximumCapacity < INITIAL_CAPACITY || maximumCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Maximum capacity out of range: " + maximumCapacity);
+        }
+        MappedLongHashSet set = new MappedLongHashSet(path, phf, maximumCapacity);
+        if (Files.exists(path)) {
+            set.load();
+        } else {
+            createFile(path, INITIAL_CAPACITY, phf);
+            set.load();
+        }
+        return set;
+    }
+
+    private static int phfId(PrimaryHashFunction phf) {
+        return phf.getClass().getName().hashCode();
+    }
+
+    /**
+     * Impronta dei valori della funzione su chiavi fisse: due istanze della stessa classe con semi
+     * o parametri diversi producono quasi certamente impronte diverse.
+     */
+    private static long phfFingerprint(PrimaryHashFunction phf) {
+        Murmur3HashMixer probes = new Murmur3HashMixer();
+        long fingerprint = 0;
+        for (int i = 0; i < FINGERPRINT_PROBES; i++) {
+            fingerprint = fingerprint * 31 + phf.hash(probes.mix(i), FINGERPRINT_BUCKETS);
+        }
+        return fingerprint;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * (Long.BYTES + 1);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        return mapped;
+    }
+
+    private static void createFile(Path path, int capacity, PrimaryHashFunction phf) throws IOException {
+        try (FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = map(created, capacity);
+            writeHeader(mapped, capacity, 0, 0, phf);
+            mapped.force();
+        }
+        syncDirectory(path);
+    }
+
+    /**
+     * Rende persistente la voce di path nella directory che lo contiene, dopo una creazione o un
+     * rinomino. Alcuni sistemi, come Windows, non permettono di aprire una directory: lì il
+     * rinomino resta affidato al file system.
+     */
+    private static void syncDirectory(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    private static void writeHeader(MappedByteBuffer mapped, int capacity, int size, int used,
+            PrimaryHashFunction phf) {
+        mapped.putLong(MAGIC_OFFSET, MAGIC);
+        mapped.putInt(VERSION_OFFSET, VERSION);
+        mapped.putInt(CAPACITY_OFFSET, capacity);
+        mapped.putInt(SIZE_OFFSET, size);
+        mapped.putInt(USED_OFFSET, used);
+        mapped.putInt(DIRTY_OFFSET, 0);
+        mapped.putInt(PHF_OFFSET, phfId(phf));
+        mapped.putLong(PHF_FINGERPRINT_OFFSET, phfFingerprint(phf));
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a hash set file: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getLong(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a hash set file: " + path);
+            }
+            if (header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported hash set file version " + header.getInt(VERSION_OFFSET) + ": " + path);
+            }
+            if (header.getInt(PHF_OFFSET) != phfId(phf)) {
+                throw new IllegalStateException("File was written with a different primary hash function");
+            }
+            if (header.getLong(PHF_FINGERPRINT_OFFSET) != phfFingerprint(phf)) {
+                throw new IllegalStateException("File was written with a different seed of the primary hash function");
+            }
+            int storedCapacity = header.getInt(CAPACITY_OFFSET);
+            if (storedCapacity <= 0 || channel.size() < fileSize(storedCapacity)) {
+                throw new IOException("Truncated hash set file: " + path);
+            }
+            capacity = storedCapacity;
+            buffer = map(channel, capacity);
+            size = buffer.getInt(SIZE_OFFSET);
+            used = buffer.getInt(USED_OFFSET);
+            if (buffer.getInt(DIRTY_OFFSET) != 0) {
+                recover();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Il file non è stato chiuso correttamente: i contatori dell'intestazione non sono affidabili
+     * e vengono ricalcolati dai byte di stato.
+     */
+    private void recover() {
+        size = 0;
+        used = 0;
+        for (int i = 0; i < capacity; i++) {
+            byte state = buffer.get(stateOffset(i));
+            if (state == FULL) {
+                size++;
+            }
+            if (state != FREE) {
+                used++;
+            }
+        }
+        dirty = true;
+        commit();
+    }
+
+    private int keyOffset(int index) {
+        return HEADER_SIZE + index * Long.BYTES;
+    }
+
+    private int stateOffset(int index) {
+        return HEADER_SIZE + capacity * Long.BYTES + index;
+    }
+
+    private int indexFor(long key, int m) {
+        return phf.hash(mixer.mix((int) (key ^ (key >>> 32))), m);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Set already closed");
+        }
+    }
+
+    private void markDirty() {
+        if (!dirty) {
+            buffer.putInt(DIRTY_OFFSET, 1);
+            buffer.force(0, HEADER_SIZE);
+            dirty = true;
+        }
+    }
+
+    public int size() {
+        ensureOpen();
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        ensureOpen();
+        return this.capacity;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    private int indexOf(long key) {
+        int index = indexFor(key, capacity);
+        for (int i = 0; i < capacity; i++) {
+            byte state = buffer.get(stateOffset(index));
+            if (state == FREE) {
+                return -1;
+            }
+            if (state == FULL && buffer.getLong(keyOffset(index)) == key) {
+                return index;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long key) {
+        ensureOpen();
+        return indexOf(key) >= 0;
+    }
+
+    public boolean add(long key) {
+        ensureOpen();
+        int index = indexFor(key, capacity);
+        int firstDeleted = -1;
+        for (int i = 0; i < capacity; i++) {
+            byte state = buffer.get(stateOffset(index));
+            if (state == FREE) {
+                break;
+            }
+            if (state == DELETED) {
+                if (firstDeleted < 0) {
+                    firstDeleted = index;
+                }
+            } else if (buffer.getLong(keyOffset(index)) == key) {
+                return false;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        // se l'inserimento richiederebbe una tabella oltre il limite lo si rifiuta prima di
+        // scrivere: nel file non finisce una chiave e la scansione trova sempre una cella FREE
+        if (firstDeleted < 0 && used + 1 > capacity * LOAD_FACTOR && resizedCapacity(size + 1) > maximumCapacity) {
+            throw new IllegalStateException("Maximum capacity reached: " + maximumCapacity);
+        }
+        markDirty();
+        if (firstDeleted >= 0) {
+            index = firstDeleted;
+        } else {
+            used++;
+        }
+        // prima la chiave, poi lo stato: se termina il processo una cella FULL contiene sempre
+        // una chiave completa (non vale dopo uno spegnimento, vedi la documentazione della classe)
+        buffer.putLong(keyOffset(index), key);
+        buffer.put(stateOffset(index), FULL);
+        size++;
+        if (used > capacity * LOAD_FACTOR) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean remove(long key) {
+        ensureOpen();
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        markDirty();
+        buffer.put(stateOffset(index), DELETED);
+        size--;
+        return true;
+    }
+
+    // se la maggior parte delle celle occupate sono DELETED basta ripulire la tabella
+    private int resizedCapacity(int size) {
+        return size > capacity * LOAD_FACTOR / 2 ? capacity * 2 : capacity;
+    }
+
+    private void resize() {
+        int newCapacity = resizedCapacity(size);
+        if (newCapacity > maximumCapacity) {
+            throw new IllegalStateException("Maximum capacity reached: " + maximumCapacity);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(tmp);
+            try (FileChannel created = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = map(created, newCapacity);
+                int newStates = HEADER_SIZE + newCapacity * Long.BYTES;
+                for (int i = 0; i < capacity; i++) {
+                    if (buffer.get(stateOffset(i)) == FULL) {
+                        long key = buffer.getLong(keyOffset(i));
+                        int index = indexFor(key, newCapacity);
+                        while (mapped.get(newStates + index) != FREE) {
+                            if (++index == newCapacity) {
+                                index = 0;
+                            }
+                        }
+                        mapped.putLong(HEADER_SIZE + index * Long.BYTES, key);
+                        mapped.put(newStates + index, FULL);
+                    }
+                }
+                writeHeader(mapped, newCapacity, size, size, phf);
+                mapped.force();
+            }
+            // il rinomino atomico garantisce che il file contenga sempre la vecchia o la nuova tabella
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(path);
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            capacity = newCapacity;
+            buffer = map(channel, capacity);
+            used = size;
+            dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void forEach(LongConsumer action) {
+        ensureOpen();
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (buffer.get(stateOffset(i)) == FULL) {
+                action.accept(buffer.getLong(keyOffset(i)));
+            }
+        }
+    }
+
+    /**
+     * Rende persistenti le modifiche effettuate e aggiorna l'intestazione: dopo un commit il file
+     * può essere riaperto senza ricontare le celle.
+     */
+    public void commit() {
+        ensureOpen();
+        if (!dirty) {
+            return;
+        }
+        buffer.force();
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(USED_OFFSET, used);
+        buffer.putInt(DIRTY_OFFSET, 0);
+        buffer.force(0, HEADER_SIZE);
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        commit();
+        buffer = null;
+        channel.close();
+    }
+
+}
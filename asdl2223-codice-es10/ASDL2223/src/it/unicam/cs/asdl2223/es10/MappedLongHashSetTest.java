@@ -0,0 +1,128 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedLongHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void divisionHash_testReopen() throws IOException {
+        Path file = dir.resolve("set.bin");
+        Set<Integer> expected;
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, divisionHash)) {
+            expected = RandomSetOperations.check(11, 20000, 3000, v -> set.add(v - 1500L), v -> set.remove(v - 1500L),
+                    v -> set.contains(v - 1500L), set::size);
+        }
+        // dopo la riapertura il contenuto deve essere quello scritto, letto dal solo file
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, divisionHash)) {
+            assertEquals(expected.size(), set.size());
+            for (int v = 0; v < 3000; v++) {
+                assertEquals(expected.contains(v), set.contains(v - 1500L));
+            }
+            Set<Long> visited = new HashSet<>();
+            set.forEach(visited::add);
+            assertEquals(expected.stream().map(v -> v - 1500L).collect(Collectors.toSet()), visited);
+        }
+        assertFalse(Files.exists(dir.resolve("set.bin.tmp")));
+    }
+
+    @Test
+    void multiplicationHash_testRecoverUncommittedChanges() throws IOException {
+        Path file = dir.resolve("set.bin");
+        Path crashed = dir.resolve("crashed.bin");
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, multiplicationHash)) {
+            for (long i = 0; i < 5; i++) {
+                set.add(i);
+            }
+            set.commit();
+            set.add(100);
+            set.remove(0);
+            // copia del file senza commit: simula un arresto prima della chiusura
+            Files.copy(file, crashed);
+        }
+        try (MappedLongHashSet set = MappedLongHashSet.open(crashed, multiplicationHash)) {
+            assertEquals(5, set.size());
+            assertTrue(set.contains(100));
+            assertFalse(set.contains(0));
+        }
+    }
+
+    @Test
+    void universalHash_testWrongSeed() throws IOException {
+        Path file = dir.resolve("set.bin");
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, new UniversalPrimaryHashFunction(1))) {
+            for (long i = 1; i <= 100; i++) {
+                set.add(i);
+            }
+        }
+        // stessa classe ma seme diverso: le chiavi andrebbero cercate nei bucket sbagliati
+        assertThrows(IllegalStateException.class, () -> {
+            MappedLongHashSet.open(file, new UniversalPrimaryHashFunction(2));
+        });
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, new UniversalPrimaryHashFunction(1))) {
+            assertEquals(100, set.size());
+            for (long i = 1; i <= 100; i++) {
+                assertTrue(set.contains(i));
+            }
+        }
+    }
+
+    @Test
+    void multiplicationHash_testMaximumCapacityRefusesInsertWithoutWriting() throws IOException {
+        Path file = dir.resolve("set.bin");
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, multiplicationHash, 32)) {
+            for (long i = 1; i <= 16; i++) {
+                assertTrue(set.add(i));
+            }
+            assertEquals(32, set.getCapacity());
+            for (long i = 17; i <= 100; i++) {
+                long key = i;
+                assertThrows(IllegalStateException.class, () -> set.add(key));
+                assertFalse(set.contains(key));
+            }
+            assertFalse(set.add(1));
+            assertEquals(16, set.size());
+            // con poche chiavi vive la tabella si ripulisce dalle celle DELETED senza crescere
+            for (long i = 1; i <= 9; i++) {
+                assertTrue(set.remove(i));
+            }
+            assertTrue(set.add(200));
+            assertEquals(32, set.getCapacity());
+        }
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, multiplicationHash)) {
+            assertEquals(8, set.size());
+            for (long i = 1; i <= 16; i++) {
+                assertEquals(i > 9, set.contains(i));
+            }
+            assertTrue(set.contains(200));
+        }
+    }
+
+    @Test
+    void divisionHash_testWrongHashFunction() throws IOException {
+        Path file = dir.resolve("set.bin");
+        try (MappedLongHashSet set = MappedLongHashSet.open(file, divisionHash)) {
+            set.add(42);
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            MappedLongHashSet.open(file, multiplicationHash);
+        });
+    }
+
+}
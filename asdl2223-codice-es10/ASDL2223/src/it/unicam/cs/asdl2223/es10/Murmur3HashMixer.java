@@ -0,0 +1,16 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class Murmur3HashMixer implements HashMixer {
+
+    @Override
+    public int mix(int h) {
+        // fmix32 di MurmurHash3
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
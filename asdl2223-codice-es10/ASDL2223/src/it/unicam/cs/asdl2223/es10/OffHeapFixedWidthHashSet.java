@@ -0,0 +1,244 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Insieme di chiavi byte[] di lunghezza fissa memorizzate fuori dallo heap. Ogni cella occupa un
+ * byte di stato seguito dai byte della chiave; la scansione è lineare con cancellazione per
+ * spostamento all'indietro. close() abbandona il buffer diretto: come per OffHeapLongHashSet, la
+ * memoria nativa torna libera solo quando il garbage collector raccoglie il buffer.
+ */
+public class OffHeapFixedWidthHashSet implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private final int keyWidth;
+    private final int slotWidth;
+    private int size;
+    private int capacity;
+    private ByteBuffer table;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+
+    public OffHeapFixedWidthHashSet(PrimaryHashFunction phf, int keyWidth) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (keyWidth <= 0) {
+            throw new IllegalArgumentException("Key width must be positive: " + keyWidth);
+        }
+        this.phf = phf;
+        this.mixer = new Murmur3HashMixer();
+        this.keyWidth = keyWidth;
+        this.slotWidth = keyWidth + 1;
+        this.capacity = INITIAL_CAPACITY;
+        this.table = ByteBuffer.allocateDirect(capacity * slotWidth);
+        this.size = 0;
+    }
+
+    private void ensureOpen() {
+        if (table == null) {
+            throw new IllegalStateException("Set already closed");
+        }
+    }
+
+    private void checkKey(byte[] key) {
+        ensureOpen();
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+        if (key.length != keyWidth) {
+            throw new IllegalArgumentException("Key must be " + keyWidth + " bytes long, not " + key.length);
+        }
+    }
+
+    private static int hashBytes(ByteBuffer buffer, int offset, int length) {
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + buffer.get(offset + i);
+        }
+        return h;
+    }
+
+    private static int hashBytes(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        return h;
+    }
+
+    private int indexFor(int hash, int m) {
+        return phf.hash(mixer.mix(hash), m);
+    }
+
+    private boolean keyEquals(int index, byte[] key) {
+        int offset = index * slotWidth + 1;
+        for (int i = 0; i < keyWidth; i++) {
+            if (table.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        ensureOpen();
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getKeyWidth() {
+        return this.keyWidth;
+    }
+
+    public long getOffHeapBytes() {
+        ensureOpen();
+        return (long) capacity * slotWidth;
+    }
+
+    private int indexOf(byte[] key) {
+        int index = indexFor(hashBytes(key), capacity);
+        while (table.get(index * slotWidth) != FREE) {
+            if (keyEquals(index, key)) {
+                return index;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(byte[] key) {
+        checkKey(key);
+        return indexOf(key) >= 0;
+    }
+
+    public boolean add(byte[] key) {
+        checkKey(key);
+        int index = indexFor(hashBytes(key), capacity);
+        while (table.get(index * slotWidth) != FREE) {
+            if (keyEquals(index, key)) {
+                return false;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        // la tabella non può più crescere: si rifiuta l'inserimento prima di modificare l'insieme,
+        // così almeno metà delle celle resta libera e la scansione termina sempre
+        if (size + 1 > capacity * LOAD_FACTOR && !canGrow()) {
+            throw new IllegalStateException("Maximum capacity reached: " + capacity);
+        }
+        int offset = index * slotWidth;
+        table.put(offset, FULL);
+        table.put(offset + 1, key);
+        size++;
+        if (size > capacity * LOAD_FACTOR) {
+            resize();
+        }
+        return true;
+    }
+
+    // il buffer diretto è indicizzato con un int
+    private boolean canGrow() {
+        return (long) capacity * 2 * slotWidth <= Integer.MAX_VALUE;
+    }
+
+    private void resize() {
+        if (!canGrow()) {
+            throw new IllegalStateException("Maximum capacity reached: " + capacity);
+        }
+        ByteBuffer oldTable = table;
+        int oldCapacity = capacity;
+        capacity = oldCapacity * 2;
+        table = ByteBuffer.allocateDirect(capacity * slotWidth);
+        for (int i = 0; i < oldCapacity; i++) {
+            int oldOffset = i * slotWidth;
+            if (oldTable.get(oldOffset) != FREE) {
+                int index = indexFor(hashBytes(oldTable, oldOffset + 1, keyWidth), capacity);
+                while (table.get(index * slotWidth) != FREE) {
+                    if (++index == capacity) {
+                        index = 0;
+                    }
+                }
+                copySlot(oldTable, oldOffset, table, index * slotWidth);
+            }
+        }
+    }
+
+    private void copySlot(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset) {
+        to.put(toOffset, from, fromOffset, slotWidth);
+    }
+
+    public boolean remove(byte[] key) {
+        checkKey(key);
+        int gap = indexOf(key);
+        if (gap < 0) {
+            return false;
+        }
+        int index = gap;
+        while (true) {
+            if (++index == capacity) {
+                index = 0;
+            }
+            int offset = index * slotWidth;
+            if (table.get(offset) == FREE) {
+                break;
+            }
+            int home = indexFor(hashBytes(table, offset + 1, keyWidth), capacity);
+            boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                copySlot(table, offset, table, gap * slotWidth);
+                gap = index;
+            }
+        }
+        table.put(gap * slotWidth, FREE);
+        size--;
+        return true;
+    }
+
+    /**
+     * Passa ogni chiave all'azione, copiata in un array riusato tra una chiamata e l'altra.
+     */
+    public void forEach(Consumer<byte[]> action) {
+        ensureOpen();
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        byte[] key = new byte[keyWidth];
+        for (int i = 0; i < capacity; i++) {
+            int offset = i * slotWidth;
+            if (table.get(offset) != FREE) {
+                table.get(offset + 1, key);
+                action.accept(key);
+            }
+        }
+    }
+
+    public void clear() {
+        ensureOpen();
+        for (int i = 0; i < capacity; i++) {
+            table.put(i * slotWidth, FREE);
+        }
+        size = 0;
+    }
+
+    /**
+     * Abbandona il buffer diretto: la memoria nativa viene restituita quando il buffer è raccolto.
+     * Ogni operazione successiva lancia IllegalStateException.
+     */
+    @Override
+    public void close() {
+        table = null;
+        capacity = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,55 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapFixedWidthHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    private static byte[] key(int i) {
+        return ByteBuffer.allocate(12).putInt(i).putInt(~i).putInt(i * 31).array();
+    }
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        try (OffHeapFixedWidthHashSet set = new OffHeapFixedWidthHashSet(divisionHash, 12)) {
+            addContainsRemove(set);
+        }
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        try (OffHeapFixedWidthHashSet set = new OffHeapFixedWidthHashSet(multiplicationHash, 12)) {
+            addContainsRemove(set);
+        }
+    }
+
+    private void addContainsRemove(OffHeapFixedWidthHashSet set) {
+        Set<Integer> expected = RandomSetOperations.check(7, 20000, 2000, v -> set.add(key(v)),
+                v -> set.remove(key(v)), v -> set.contains(key(v)), set::size);
+        Set<Integer> visited = new HashSet<>();
+        set.forEach(k -> visited.add(ByteBuffer.wrap(k).getInt()));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void divisionHash_testWrongWidth() {
+        try (OffHeapFixedWidthHashSet set = new OffHeapFixedWidthHashSet(divisionHash, 12)) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                set.add(new byte[8]);
+            });
+            assertThrows(NullPointerException.class, () -> {
+                set.contains(null);
+            });
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Insieme di chiavi long memorizzate fuori dallo heap, in un buffer diretto a indirizzamento aperto
+ * con scansione lineare. Il garbage collector vede un solo oggetto per tabella, indipendentemente
+ * dal numero di chiavi. close() abbandona il buffer, ma la memoria nativa torna libera solo quando
+ * il garbage collector raccoglie il buffer e ne esegue il Cleaner: il rilascio non è immediato.
+ */
+public class OffHeapLongHashSet implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    // un buffer diretto è indicizzato con un int: al massimo 2^27 celle da 8 byte
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+    private static final long FREE_KEY = 0;
+    private int size;
+    private int capacity;
+    private LongBuffer table;
+    private boolean containsFreeKey;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+
+    public OffHeapLongHashSet(PrimaryHashFunction phf) {
+        this(phf, INITIAL_CAPACITY);
+    }
+
+    public OffHeapLongHashSet(PrimaryHashFunction phf, int expectedSize) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        this.phf = phf;
+        this.mixer = new Murmur3HashMixer();
+        int initialCapacity = INITIAL_CAPACITY;
+        while (initialCapacity * LOAD_FACTOR < expectedSize && initialCapacity < MAXIMUM_CAPACITY) {
+            initialCapacity *= 2;
+        }
+        this.capacity = initialCapacity;
+        this.table = allocate(initialCapacity);
+        this.size = 0;
+        this.containsFreeKey = false;
+    }
+
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    private int indexFor(long key, int m) {
+        return phf.hash(mixer.mix((int) (key ^ (key >>> 32))), m);
+    }
+
+    private void ensureOpen() {
+        if (table == null) {
+            throw new IllegalStateException("Set already closed");
+        }
+    }
+
+    public int size() {
+        ensureOpen();
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        ensureOpen();
+        return this.capacity;
+    }
+
+    /**
+     * Byte occupati fuori dallo heap.
+     */
+    public long getOffHeapBytes() {
+        ensureOpen();
+        return (long) capacity * Long.BYTES;
+    }
+
+    private int indexOf(long key) {
+        int index = indexFor(key, capacity);
+        long slot;
+        while ((slot = table.get(index)) != FREE_KEY) {
+            if (slot == key) {
+                return index;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long key) {
+        ensureOpen();
+        if (key == FREE_KEY) {
+            return containsFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public boolean add(long key) {
+        ensureOpen();
+        if (key == FREE_KEY) {
+            if (containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = true;
+            size++;
+            return true;
+        }
+        int index = indexFor(key, capacity);
+        long slot;
+        while ((slot = table.get(index)) != FREE_KEY) {
+            if (slot == key) {
+                return false;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        // la tabella non può più crescere: si rifiuta l'inserimento prima di modificare l'insieme,
+        // così almeno metà delle celle resta libera e la scansione termina sempre
+        if (size + 1 > capacity * LOAD_FACTOR && capacity == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Maximum capacity reached: " + MAXIMUM_CAPACITY);
+        }
+        table.put(index, key);
+        size++;
+        if (size > capacity * LOAD_FACTOR) {
+            resize();
+        }
+        return true;
+    }
+
+    private void resize() {
+        if (capacity == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Maximum capacity reached: " + MAXIMUM_CAPACITY);
+        }
+        // la nuova area viene allocata, riempita e la vecchia abbandonata: nessun oggetto per chiave
+        LongBuffer oldTable = table;
+        int oldCapacity = capacity;
+        capacity = oldCapacity * 2;
+        table = allocate(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = oldTable.get(i);
+            if (key != FREE_KEY) {
+                int index = indexFor(key, capacity);
+                while (table.get(index) != FREE_KEY) {
+                    if (++index == capacity) {
+                        index = 0;
+                    }
+                }
+                table.put(index, key);
+            }
+        }
+    }
+
+    public boolean remove(long key) {
+        ensureOpen();
+        if (key == FREE_KEY) {
+            if (!containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = false;
+            size--;
+            return true;
+        }
+        int gap = indexOf(key);
+        if (gap < 0) {
+            return false;
+        }
+        int index = gap;
+        while (true) {
+            if (++index == capacity) {
+                index = 0;
+            }
+            long slot = table.get(index);
+            if (slot == FREE_KEY) {
+                break;
+            }
+            int home = indexFor(slot, capacity);
+            boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                table.put(gap, slot);
+                gap = index;
+            }
+        }
+        table.put(gap, FREE_KEY);
+        size--;
+        return true;
+    }
+
+    public void forEach(LongConsumer action) {
+        ensureOpen();
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        if (containsFreeKey) {
+            action.accept(FREE_KEY);
+        }
+        for (int i = 0; i < capacity; i++) {
+            long key = table.get(i);
+            if (key != FREE_KEY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public void clear() {
+        ensureOpen();
+        for (int i = 0; i < capacity; i++) {
+            table.put(i, FREE_KEY);
+        }
+        size = 0;
+        containsFreeKey = false;
+    }
+
+    /**
+     * Abbandona il buffer diretto: la memoria nativa viene restituita quando il buffer è raccolto.
+     * Ogni operazione successiva lancia IllegalStateException.
+     */
+    @Override
+    public void close() {
+        table = null;
+        capacity = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,82 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapLongHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            addContainsRemove(set);
+        }
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(multiplicationHash)) {
+            addContainsRemove(set);
+        }
+    }
+
+    private void addContainsRemove(OffHeapLongHashSet set) {
+        Set<Integer> expected = RandomSetOperations.check(5, 50000, 4000, v -> set.add(key(v)),
+                v -> set.remove(key(v)), v -> set.contains(key(v)), set::size);
+        Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+        assertEquals(expected.stream().map(v -> key(v)).collect(Collectors.toSet()), visited);
+    }
+
+    // chiavi con entrambe le metà a 32 bit significative, anche negative e zero
+    private static long key(int v) {
+        return (v - 2000) * 0x1_0000_0001L;
+    }
+
+    @Test
+    void divisionHash_testZeroKey() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            assertTrue(set.add(0));
+            assertFalse(set.add(0));
+            assertTrue(set.contains(0));
+            assertTrue(set.remove(0));
+            assertTrue(set.isEmpty());
+        }
+    }
+
+    @Test
+    void divisionHash_testShouldGrow() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            for (long i = 1; i <= 9; i++) {
+                set.add(i << 40);
+            }
+            assertEquals(32, set.getCapacity());
+            assertEquals(32 * Long.BYTES, set.getOffHeapBytes());
+            for (long i = 1; i <= 9; i++) {
+                assertTrue(set.contains(i << 40));
+            }
+        }
+    }
+
+    @Test
+    void divisionHash_testClosedSetShouldThrow() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash);
+        set.add(42);
+        set.close();
+        assertThrows(IllegalStateException.class, () -> {
+            set.contains(42);
+        });
+        assertThrows(IllegalStateException.class, () -> {
+            set.add(1);
+        });
+    }
+
+}
@@ -0,0 +1,5 @@
+package it.unicam.cs.asdl2223.es10;
+
+public interface OpenAddressingHashFunction {
+    public int hash(int key, int i, int m);
+}
@@ -0,0 +1,299 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+
+public class OpenAddressingHashTable<E> implements Set<E> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+    private static final Object DELETED = new Object();
+    private int size;
+    private int used;
+    private Object[] table;
+    private final OpenAddressingHashFunction ohf;
+    private int modCount;
+
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    public OpenAddressingHashTable(OpenAddressingHashFunction ohf) {
+        if (ohf == null) {
+            throw new NullPointerException("Hash function cannot be null");
+        }
+        this.ohf = ohf;
+        this.table = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+        this.used = 0;
+        this.modCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(Object element) {
+        int key = element.hashCode();
+        int m = table.length;
+        for (int i = 0; i < m; i++) {
+            int index = ohf.hash(key, i, m);
+            Object slot = table[index];
+            if (slot == null) {
+                return -1;
+            }
+            if (slot != DELETED && slot.equals(element)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return indexOf(element) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Object slot : table) {
+            if (slot != null && slot != DELETED) {
+                result[i++] = slot;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (Object slot : table) {
+            if (slot != null && slot != DELETED) {
+                a[i++] = (T) slot;
+            }
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int key = e.hashCode();
+        int m = table.length;
+        int firstDeleted = -1;
+        int freeSlot = -1;
+        for (int i = 0; i < m; i++) {
+            int index = ohf.hash(key, i, m);
+            Object slot = table[index];
+            if (slot == null) {
+                freeSlot = index;
+                break;
+            }
+            if (slot == DELETED) {
+                if (firstDeleted < 0) {
+                    firstDeleted = index;
+                }
+            } else if (slot.equals(e)) {
+                return false;
+            }
+        }
+        if (firstDeleted >= 0) {
+            table[firstDeleted] = e;
+        } else {
+            table[freeSlot] = e;
+            used++;
+        }
+        size++;
+        modCount++;
+        if (used > getCurrentThreshold()) {
+            resize();
+        }
+        return true;
+    }
+
+    private void resize() {
+        Object[] oldTable = table;
+        // se la maggior parte delle celle occupate sono DELETED basta ripulire la tabella
+        int newCapacity = size > getCurrentThreshold() / 2 ? oldTable.length * 2 : oldTable.length;
+        table = new Object[newCapacity];
+        used = size;
+        for (Object slot : oldTable) {
+            if (slot != null && slot != DELETED) {
+                insertForResize(slot);
+            }
+        }
+    }
+
+    private void insertForResize(Object element) {
+        int key = element.hashCode();
+        int m = table.length;
+        for (int i = 0; i < m; i++) {
+            int index = ohf.hash(key, i, m);
+            if (table[index] == null) {
+                table[index] = element;
+                return;
+            }
+        }
+        throw new IllegalStateException("Probe sequence does not cover the table");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        table[index] = DELETED;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (int i = 0; i < table.length; i++) {
+            Object slot = table[i];
+            if (slot != null && slot != DELETED && !c.contains(slot)) {
+                table[i] = DELETED;
+                size--;
+                modified = true;
+            }
+        }
+        if (modified) {
+            modCount++;
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        this.table = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+        this.used = 0;
+        this.modCount++;
+    }
+
+    private class Itr implements Iterator<E> {
+        private int numeroModificheAtteso;
+        private int currentIndex;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentIndex = findNextIndex(0);
+        }
+
+        private int findNextIndex(int from) {
+            while (from < table.length && (table[from] == null || table[from] == DELETED)) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            E item = (E) table[currentIndex];
+            currentIndex = findNextIndex(currentIndex + 1);
+            return item;
+        }
+    }
+
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    protected OpenAddressingHashFunction getOhf() {
+        return this.ohf;
+    }
+
+}
@@ -0,0 +1,153 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class OpenAddressingHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    private OpenAddressingHashFunction linearProbing = new LinearProbingHashFunction(divisionHash);
+
+    private OpenAddressingHashFunction quadraticProbing = new QuadraticProbingHashFunction(divisionHash);
+
+    private OpenAddressingHashFunction doubleHashing = new DoubleHashingHashFunction(divisionHash,
+            multiplicationHash);
+
+    @Test
+    void probeSequencesCoverTheTable() {
+        int m = 64;
+        for (OpenAddressingHashFunction ohf : Arrays.asList(linearProbing, quadraticProbing, doubleHashing)) {
+            Set<Integer> visited = new HashSet<>();
+            for (int i = 0; i < m; i++) {
+                visited.add(ohf.hash(12345, i, m));
+            }
+            assertEquals(m, visited.size());
+        }
+    }
+
+    @Test
+    void linearProbing_testAddContainsRemove() {
+        addContainsRemove(new OpenAddressingHashTable<>(linearProbing));
+    }
+
+    @Test
+    void quadraticProbing_testAddContainsRemove() {
+        addContainsRemove(new OpenAddressingHashTable<>(quadraticProbing));
+    }
+
+    @Test
+    void doubleHashing_testAddContainsRemove() {
+        addContainsRemove(new OpenAddressingHashTable<>(doubleHashing));
+    }
+
+    private void addContainsRemove(OpenAddressingHashTable<Integer> table) {
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(table.add(i * 16));
+        }
+        assertFalse(table.add(0));
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(table.remove(i * 16));
+        }
+        assertFalse(table.remove(0));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, table.contains(i * 16));
+        }
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    void linearProbing_testNull() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(linearProbing);
+        assertThrows(NullPointerException.class, () -> {
+            table.add(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            table.contains(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            table.remove(null);
+        });
+    }
+
+    @Test
+    void linearProbing_testShouldResize() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(linearProbing);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(9);
+        assertEquals(tableLengthBeforeAdd * 2, table.getTable().length);
+    }
+
+    @Test
+    void linearProbing_testReuseDeletedSlots() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(linearProbing);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+            table.remove(i);
+        }
+        assertTrue(table.isEmpty());
+        assertEquals(16, table.getTable().length);
+    }
+
+    @Test
+    void doubleHashing_testToArray() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(doubleHashing);
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        table.addAll(Arrays.asList(vals));
+        Integer[] array = table.toArray(new Integer[0]);
+        Arrays.sort(array);
+        assertArrayEquals(new Integer[] { 5, 11, 12, 32, 42, 777 }, array);
+    }
+
+    @Test
+    void quadraticProbing_testRetainAll() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(quadraticProbing);
+        Integer vals[] = { 12, 42, 5, 32, 777, 11 };
+        table.addAll(Arrays.asList(vals));
+        assertTrue(table.retainAll(Arrays.asList(42, 5, -1)));
+        assertEquals(2, table.size());
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(12));
+    }
+
+    @Test
+    void linearProbing_testIteratorShouldFailFast() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(linearProbing);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void doubleHashing_testIteratorVisitsAll() {
+        OpenAddressingHashTable<Integer> table = new OpenAddressingHashTable<>(doubleHashing);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i * 7);
+            table.add(i * 7);
+        }
+        Set<Integer> visited = new HashSet<>();
+        for (Integer i : table) {
+            visited.add(i);
+        }
+        assertEquals(expected, visited);
+    }
+
+}
@@ -0,0 +1,21 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class QuadraticProbingHashFunction implements OpenAddressingHashFunction {
+
+    private final PrimaryHashFunction phf;
+
+    public QuadraticProbingHashFunction(PrimaryHashFunction phf) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        this.phf = phf;
+    }
+
+    @Override
+    public int hash(int key, int i, int m) {
+        // c1 = c2 = 1/2: i-esimo numero triangolare, visita tutte le celle se m è una potenza di 2
+        long offset = ((long) i + (long) i * i) / 2;
+        return (int) ((phf.hash(key, m) + offset) % m);
+    }
+
+}
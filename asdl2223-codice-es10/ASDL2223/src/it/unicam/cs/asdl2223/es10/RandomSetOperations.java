@@ -0,0 +1,60 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * Sequenza casuale di inserimenti e rimozioni usata dai test degli insiemi: ogni operazione è
+ * confrontata con un HashSet di riferimento. I valori sono interi in [0, range); gli insiemi di
+ * altri tipi li convertono nelle proprie chiavi dentro le funzioni passate.
+ */
+final class RandomSetOperations {
+
+    private RandomSetOperations() {
+    }
+
+    /**
+     * Esegue operations inserimenti o rimozioni (due su tre sono inserimenti), poi confronta size e
+     * contains per tutti i valori dell'intervallo. Restituisce l'insieme di riferimento, per i
+     * controlli sull'iterazione che dipendono dall'implementazione.
+     */
+    static Set<Integer> check(long seed, int operations, int range, IntPredicate add, IntPredicate remove,
+            IntPredicate contains, IntSupplier size) {
+        Random random = new Random(seed);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < operations; i++) {
+            int val = random.nextInt(range);
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.add(val), add.test(val), "add(" + val + ")");
+            } else {
+                assertEquals(expected.remove(val), remove.test(val), "remove(" + val + ")");
+            }
+        }
+        assertEquals(expected.size(), size.getAsInt());
+        for (int i = 0; i < range; i++) {
+            assertEquals(expected.contains(i), contains.test(i), "contains(" + i + ")");
+        }
+        return expected;
+    }
+
+    static Set<Integer> check(Set<Integer> set, long seed, int operations, int range) {
+        return check(seed, operations, range, set::add, set::remove, set::contains, set::size);
+    }
+
+    /**
+     * Controlla che l'iterazione restituisca ogni elemento atteso una sola volta.
+     */
+    static <E> void assertIteratesOnce(Set<E> expected, Iterable<E> set) {
+        Set<E> visited = new HashSet<>();
+        for (E e : set) {
+            assertTrue(visited.add(e), "visited twice: " + e);
+        }
+        assertEquals(expected, visited);
+    }
+
+}
@@ -0,0 +1,368 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.util.*;
+
+public class RobinHoodHashTable<E> implements Set<E> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.875;
+    private final double loadFactor;
+    private int size;
+    private Object[] table;
+    // distanza dalla cella di origine + 1, 0 indica una cella libera
+    private int[] distances;
+    private final PrimaryHashFunction phf;
+    private int modCount;
+
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * loadFactor);
+    }
+
+    public RobinHoodHashTable(PrimaryHashFunction phf) {
+        this(phf, DEFAULT_LOAD_FACTOR);
+    }
+
+    public RobinHoodHashTable(PrimaryHashFunction phf, double loadFactor) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+        this.phf = phf;
+        this.loadFactor = loadFactor;
+        this.table = new Object[INITIAL_CAPACITY];
+        this.distances = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(Object element) {
+        int m = table.length;
+        int index = phf.hash(element.hashCode(), m);
+        for (int d = 1; d <= distances[index]; d++) {
+            // se l'elemento residente è più vicino alla sua origine di quanto lo saremmo noi,
+            // l'elemento cercato lo avrebbe spostato: non è presente
+            if (distances[index] == d && table[index].equals(element)) {
+                return index;
+            }
+            if (++index == m) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return indexOf(element) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Object slot : table) {
+            if (slot != null) {
+                result[i++] = slot;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (Object slot : table) {
+            if (slot != null) {
+                a[i++] = (T) slot;
+            }
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        if (contains(e)) {
+            return false;
+        }
+        if (size + 1 > getCurrentThreshold()) {
+            resize();
+        }
+        insert(e);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private void insert(Object element) {
+        int m = table.length;
+        int index = phf.hash(element.hashCode(), m);
+        int d = 1;
+        while (true) {
+            if (distances[index] == 0) {
+                table[index] = element;
+                distances[index] = d;
+                return;
+            }
+            if (distances[index] < d) {
+                // l'elemento residente è "più ricco": gli prendiamo il posto e continuiamo con lui
+                Object displaced = table[index];
+                int displacedDistance = distances[index];
+                table[index] = element;
+                distances[index] = d;
+                element = displaced;
+                d = displacedDistance;
+            }
+            d++;
+            if (++index == m) {
+                index = 0;
+            }
+        }
+    }
+
+    private void resize() {
+        Object[] oldTable = table;
+        table = new Object[oldTable.length * 2];
+        distances = new int[oldTable.length * 2];
+        for (Object slot : oldTable) {
+            if (slot != null) {
+                insert(slot);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        deleteAt(index);
+        size--;
+        modCount++;
+        return true;
+    }
+
+    private void deleteAt(int index) {
+        // backward shift: gli elementi successivi fuori posto arretrano di una cella
+        int m = table.length;
+        int next = index + 1 == m ? 0 : index + 1;
+        while (distances[next] > 1) {
+            table[index] = table[next];
+            distances[index] = distances[next] - 1;
+            index = next;
+            next = next + 1 == m ? 0 : next + 1;
+        }
+        table[index] = null;
+        distances[index] = 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (Object element : toArray()) {
+            if (!c.contains(element)) {
+                remove(element);
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        this.table = new Object[INITIAL_CAPACITY];
+        this.distances = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Restituisce l'istogramma delle lunghezze di scansione: l'elemento in posizione k conta gli
+     * elementi che una ricerca con successo trova dopo aver esaminato k celle.
+     */
+    public int[] getProbeLengthHistogram() {
+        int[] histogram = new int[getMaxProbeLength() + 1];
+        for (int d : distances) {
+            if (d > 0) {
+                histogram[d]++;
+            }
+        }
+        return histogram;
+    }
+
+    public int getMaxProbeLength() {
+        int max = 0;
+        for (int d : distances) {
+            max = Math.max(max, d);
+        }
+        return max;
+    }
+
+    public double getMeanProbeLength() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int d : distances) {
+            total += d;
+        }
+        return (double) total / size;
+    }
+
+    /**
+     * Restituisce il numero di celle esaminate da una ricerca con successo al percentile dato
+     * (ad esempio 0.99), calcolato su tutti gli elementi presenti.
+     */
+    public int getProbeLengthPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("Percentile must be in [0, 1]: " + percentile);
+        }
+        int[] histogram = getProbeLengthHistogram();
+        long rank = (long) Math.ceil(percentile * size);
+        long seen = 0;
+        for (int k = 1; k < histogram.length; k++) {
+            seen += histogram[k];
+            if (seen >= rank) {
+                return k;
+            }
+        }
+        return 0;
+    }
+
+    public double getLoadFactor() {
+        return this.loadFactor;
+    }
+
+    private class Itr implements Iterator<E> {
+        private int numeroModificheAtteso;
+        private int currentIndex;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentIndex = findNextIndex(0);
+        }
+
+        private int findNextIndex(int from) {
+            while (from < table.length && table[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            E item = (E) table[currentIndex];
+            currentIndex = findNextIndex(currentIndex + 1);
+            return item;
+        }
+    }
+
+    protected Object[] getTable() {
+        return this.table;
+    }
+
+    protected int[] getDistances() {
+        return this.distances;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
@@ -0,0 +1,122 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RobinHoodHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new RobinHoodHashTable<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new RobinHoodHashTable<>(multiplicationHash));
+    }
+
+    private void addContainsRemove(RobinHoodHashTable<Integer> table) {
+        Random random = new Random(7);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int val = random.nextInt(5000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(val), table.add(val));
+            } else {
+                assertEquals(expected.remove(val), table.remove(val));
+            }
+        }
+        assertEquals(expected.size(), table.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(expected.contains(i), table.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testNull() {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(divisionHash);
+        assertThrows(NullPointerException.class, () -> {
+            table.add(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            table.contains(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            table.remove(null);
+        });
+    }
+
+    @Test
+    void divisionHash_testInvalidLoadFactor() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RobinHoodHashTable<Integer>(divisionHash, 1.0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RobinHoodHashTable<Integer>(divisionHash, 0);
+        });
+    }
+
+    @Test
+    void divisionHash_testHighLoadFactorShouldNotResize() {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(divisionHash, 0.95);
+        for (int i = 0; i < 15; i++) {
+            table.add(i * 16);
+        }
+        assertEquals(16, table.getTable().length);
+        table.add(1000);
+        assertEquals(32, table.getTable().length);
+    }
+
+    @Test
+    void divisionHash_testRemoveLeavesNoTombstones() {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(divisionHash);
+        Integer vals[] = { 0, 16, 32, 1, 2 };
+        table.addAll(Arrays.asList(vals));
+        assertTrue(table.remove(0));
+        int[] distances = table.getDistances();
+        Object[] slots = table.getTable();
+        for (int i = 0; i < slots.length; i++) {
+            assertEquals(slots[i] == null, distances[i] == 0);
+        }
+        assertTrue(table.containsAll(Arrays.asList(16, 32, 1, 2)));
+        assertEquals(1, distances[0]);
+    }
+
+    @Test
+    void divisionHash_testProbeLengthStatistics() {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(divisionHash);
+        Integer vals[] = { 0, 16, 32, 3 };
+        table.addAll(Arrays.asList(vals));
+        assertEquals(3, table.getMaxProbeLength());
+        assertArrayEquals(new int[] { 0, 2, 1, 1 }, table.getProbeLengthHistogram());
+        assertEquals(7.0 / 4, table.getMeanProbeLength(), 1e-9);
+        assertEquals(3, table.getProbeLengthPercentile(0.99));
+        assertEquals(1, table.getProbeLengthPercentile(0.5));
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        RobinHoodHashTable<Integer> table = new RobinHoodHashTable<>(divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.remove(5);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+}
@@ -0,0 +1,10 @@
+package it.unicam.cs.asdl2223.es10;
+
+public interface SeededPrimaryHashFunction extends PrimaryHashFunction {
+    /**
+     * Restituisce una nuova funzione della stessa famiglia con un seme indipendente. Il seme può
+     * essere derivato da quello di questa funzione, così che chiamate successive restituiscano
+     * sempre la stessa sequenza di funzioni.
+     */
+    public SeededPrimaryHashFunction reseed();
+}
@@ -0,0 +1,432 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Insieme senza lock basato su una lista ordinata per split-order (Shalev e Shavit). Tutti gli
+ * elementi stanno in un'unica lista concatenata, modificata solo con compareAndSet, ordinata
+ * secondo l'hash con i bit invertiti. In questo ordine gli elementi del bucket b, con 2^i bucket,
+ * sono contigui e si dividono senza spostarsi tra i bucket b e b + 2^i quando i bucket
+ * raddoppiano: ogni bucket è solo un nodo sentinella nella lista, creato alla prima visita, e il
+ * ridimensionamento si limita a raddoppiare il numero di bucket.
+ *
+ * Un nodo viene rimosso facendo puntare il suo next a un nodo marcatore (rimozione logica) e poi
+ * scollegandolo; chi attraversa la lista completa gli scollegamenti lasciati a metà. Dopo il
+ * marcatore nessun compareAndSet sul next del nodo rimosso può più riuscire, quindi non si perdono
+ * inserimenti fatti subito dopo di lui.
+ *
+ * Lo split-order richiede che il bucket sia dato dai bit bassi dell'hash, quindi questa classe
+ * non usa una PrimaryHashFunction: gli hash sono rimescolati e poi mascherati.
+ */
+public class SplitOrderedHashSet<E> implements Set<E> {
+    // elementi per bucket oltre i quali i bucket raddoppiano
+    private static final int LOAD_FACTOR = 2;
+    private static final int MAXIMUM_BUCKETS = 1 << 30;
+    private static final int HASH_BITS = 0x7FFFFFFF;
+    // il bucket b sta nel livello 32 - numberOfLeadingZeros(b), che contiene 2^(livello - 1) bucket
+    private static final int LEVELS = 32;
+    private final AtomicReferenceArray<AtomicReferenceArray<Node<E>>> levels;
+    private final AtomicInteger bucketCount;
+    private final LongAdder count;
+    private final Node<E> head;
+    private final HashMixer mixer;
+
+    public SplitOrderedHashSet() {
+        this.mixer = new Murmur3HashMixer();
+        this.levels = new AtomicReferenceArray<>(LEVELS);
+        this.bucketCount = new AtomicInteger(2);
+        this.count = new LongAdder();
+        this.head = new Node<>(0, null, null, false);
+        setBucket(0, head);
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode()) & HASH_BITS;
+    }
+
+    // gli elementi hanno chiave dispari, le sentinelle pari: una sentinella precede tutto il suo bucket
+    private static int ordinaryKey(int h) {
+        return Integer.reverse(h | 0x80000000);
+    }
+
+    private static int sentinelKey(int bucket) {
+        return Integer.reverse(bucket);
+    }
+
+    private static int level(int bucket) {
+        return 32 - Integer.numberOfLeadingZeros(bucket);
+    }
+
+    private static int offset(int bucket) {
+        return bucket == 0 ? 0 : bucket - Integer.highestOneBit(bucket);
+    }
+
+    private Node<E> getBucket(int bucket) {
+        AtomicReferenceArray<Node<E>> level = levels.get(level(bucket));
+        return level == null ? null : level.get(offset(bucket));
+    }
+
+    private void setBucket(int bucket, Node<E> sentinel) {
+        int l = level(bucket);
+        AtomicReferenceArray<Node<E>> level = levels.get(l);
+        if (level == null) {
+            levels.compareAndSet(l, null, new AtomicReferenceArray<>(l == 0 ? 1 : 1 << (l - 1)));
+            level = levels.get(l);
+        }
+        level.compareAndSet(offset(bucket), null, sentinel);
+    }
+
+    /**
+     * Restituisce la sentinella del bucket, inserendola nella lista a partire da quella del
+     * bucket padre (lo stesso indice senza il bit più alto) se non esiste ancora.
+     */
+    private Node<E> sentinel(int bucket) {
+        Node<E> sentinel = getBucket(bucket);
+        if (sentinel != null) {
+            return sentinel;
+        }
+        Node<E> parent = sentinel(bucket & ~Integer.highestOneBit(bucket));
+        Node<E> created = new Node<>(sentinelKey(bucket), null, null, false);
+        while (true) {
+            Window<E> window = find(parent, created.key, null);
+            if (window.found) {
+                // un altro thread l'ha inserita per primo
+                created = window.curr;
+                break;
+            }
+            created.next = window.curr;
+            if (window.pred.casNext(window.curr, created)) {
+                break;
+            }
+        }
+        setBucket(bucket, created);
+        return getBucket(bucket);
+    }
+
+    private Node<E> bucketFor(int h) {
+        return sentinel(h & (bucketCount.get() - 1));
+    }
+
+    private static final class Window<E> {
+        private final Node<E> pred;
+        private final Node<E> curr;
+        private final boolean found;
+
+        Window(Node<E> pred, Node<E> curr, boolean found) {
+            this.pred = pred;
+            this.curr = curr;
+            this.found = found;
+        }
+    }
+
+    /**
+     * Cerca a partire da start il nodo con la chiave e l'elemento dati (null per una sentinella),
+     * scollegando lungo il percorso i nodi marcati. Se il nodo non c'è, curr è il primo nodo con
+     * chiave maggiore, dopo tutti quelli con la stessa chiave: è lì che va inserito.
+     */
+    private Window<E> find(Node<E> start, int key, Object item) {
+        retry: while (true) {
+            Node<E> pred = start;
+            Node<E> curr = pred.next;
+            while (curr != null) {
+                if (curr.marker) {
+                    // pred è stato rimosso mentre lo si attraversava
+                    continue retry;
+                }
+                Node<E> succ = curr.next;
+                if (succ != null && succ.marker) {
+                    if (!pred.casNext(curr, succ.next)) {
+                        continue retry;
+                    }
+                    curr = succ.next;
+                    continue;
+                }
+                int cmp = Integer.compareUnsigned(curr.key, key);
+                if (cmp > 0) {
+                    break;
+                }
+                if (cmp == 0 && (item == null ? curr.item == null : item.equals(curr.item))) {
+                    return new Window<>(pred, curr, true);
+                }
+                pred = curr;
+                curr = succ;
+            }
+            return new Window<>(pred, curr, false);
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(element);
+        int key = ordinaryKey(h);
+        // sola lettura: i nodi marcati si saltano senza scollegarli
+        for (Node<E> curr = bucketFor(h).next; curr != null; curr = curr.next) {
+            if (curr.marker) {
+                continue;
+            }
+            int cmp = Integer.compareUnsigned(curr.key, key);
+            if (cmp > 0) {
+                return false;
+            }
+            if (cmp == 0 && element.equals(curr.item)) {
+                return !curr.isDeleted();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(e);
+        Node<E> start = bucketFor(h);
+        Node<E> node = new Node<>(ordinaryKey(h), e, null, false);
+        while (true) {
+            Window<E> window = find(start, node.key, e);
+            if (window.found) {
+                return false;
+            }
+            node.next = window.curr;
+            if (window.pred.casNext(window.curr, node)) {
+                break;
+            }
+        }
+        count.increment();
+        int buckets = bucketCount.get();
+        if (buckets < MAXIMUM_BUCKETS && count.sum() > (long) buckets * LOAD_FACTOR) {
+            // se il compareAndSet fallisce un altro thread ha già raddoppiato
+            bucketCount.compareAndSet(buckets, buckets * 2);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(o);
+        Node<E> start = bucketFor(h);
+        int key = ordinaryKey(h);
+        while (true) {
+            Window<E> window = find(start, key, o);
+            if (!window.found) {
+                return false;
+            }
+            Node<E> succ = window.curr.next;
+            if (succ != null && succ.marker) {
+                continue;
+            }
+            // la rimozione avviene quando il nodo viene marcato; scollegarlo è solo un aiuto
+            if (window.curr.casNext(succ, new Node<>(window.curr.key, null, succ, true))) {
+                window.pred.casNext(window.curr, succ);
+                count.decrement();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : this) {
+            if (!c.contains(element) && remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Rimuove gli elementi uno alla volta: non è atomica rispetto agli inserimenti concorrenti, e
+     * le sentinelle dei bucket restano nella lista.
+     */
+    @Override
+    public void clear() {
+        for (E element : this) {
+            remove(element);
+        }
+    }
+
+    public int getBucketCount() {
+        return bucketCount.get();
+    }
+
+    protected static final class Node<E> {
+        private static final VarHandle NEXT;
+
+        static {
+            try {
+                NEXT = MethodHandles.lookup().findVarHandle(Node.class, "next", Node.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        protected final int key;
+
+        // null per le sentinelle e i marcatori
+        protected final E item;
+
+        protected final boolean marker;
+
+        protected volatile Node<E> next;
+
+        Node(int key, E item, Node<E> next, boolean marker) {
+            this.key = key;
+            this.item = item;
+            this.next = next;
+            this.marker = marker;
+        }
+
+        boolean casNext(Node<E> expected, Node<E> update) {
+            return NEXT.compareAndSet(this, expected, update);
+        }
+
+        boolean isDeleted() {
+            Node<E> succ = next;
+            return succ != null && succ.marker;
+        }
+    }
+
+    /**
+     * Iteratore debolmente consistente: scorre la lista una volta, saltando sentinelle e nodi
+     * marcati, e non lancia mai ConcurrentModificationException.
+     */
+    private class Itr implements Iterator<E> {
+        private Node<E> nextNode;
+        private E lastReturned;
+
+        private Itr() {
+            nextNode = advance(head);
+        }
+
+        private Node<E> advance(Node<E> from) {
+            Node<E> node = from.next;
+            while (node != null && (node.item == null || node.isDeleted())) {
+                node = node.next;
+            }
+            return node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public E next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException("No more elements");
+            }
+            lastReturned = nextNode.item;
+            nextNode = advance(nextNode);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            SplitOrderedHashSet.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    protected Node<E> getHead() {
+        return this.head;
+    }
+
+}
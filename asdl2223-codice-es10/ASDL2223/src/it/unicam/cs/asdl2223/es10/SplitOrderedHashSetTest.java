@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SplitOrderedHashSetTest {
+
+    @Test
+    void testAddContainsRemove() {
+        SplitOrderedHashSet<Integer> set = new SplitOrderedHashSet<>();
+        Set<Integer> expected = RandomSetOperations.check(set, 23, 50000, 4000);
+        // i nodi sentinella dei bucket non devono comparire fra gli elementi
+        RandomSetOperations.assertIteratesOnce(expected, set);
+    }
+
+    @Test
+    void testBucketsDoubleWithoutMovingElements() {
+        SplitOrderedHashSet<Integer> set = new SplitOrderedHashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        assertEquals(512, set.getBucketCount());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i));
+        }
+    }
+
+    @Test
+    void testCollidingHashCodes() {
+        SplitOrderedHashSet<String> set = new SplitOrderedHashSet<>();
+        // stessa chiave di ordinamento: la lista li distingue solo con equals
+        String[] colliding = { "AaAa", "AaBB", "BBAa", "BBBB" };
+        for (String s : colliding) {
+            assertTrue(set.add(s));
+        }
+        assertFalse(set.add("AaBB"));
+        assertTrue(set.remove("BBAa"));
+        assertFalse(set.contains("BBAa"));
+        assertTrue(set.containsAll(Arrays.asList("AaAa", "AaBB", "BBBB")));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void testConcurrentAddAndRemove() throws InterruptedException {
+        SplitOrderedHashSet<Integer> set = new SplitOrderedHashSet<>();
+        AtomicInteger added = new AtomicInteger();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            int seed = t;
+            // tutti i thread lavorano sulle stesse chiavi: ogni chiave va aggiunta una volta sola
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20000; i++) {
+                    if (set.add(random.nextInt(30000))) {
+                        added.incrementAndGet();
+                    }
+                }
+                for (int i = 0; i < 30000; i += 2) {
+                    if (set.remove(i)) {
+                        added.decrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(added.get(), set.size());
+        int visited = 0;
+        for (Integer i : set) {
+            assertEquals(1, i % 2);
+            visited++;
+        }
+        assertEquals(added.get(), visited);
+    }
+
+    @Test
+    void testIteratorIsWeaklyConsistent() {
+        SplitOrderedHashSet<Integer> set = new SplitOrderedHashSet<>();
+        for (int i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        Iterator<Integer> it = set.iterator();
+        for (int i = 100; i < 1000; i++) {
+            set.add(i);
+            set.remove(i - 100 + 50);
+            if (it.hasNext()) {
+                visited.add(it.next());
+            }
+        }
+        while (it.hasNext()) {
+            visited.add(it.next());
+        }
+        for (int i = 0; i < 50; i++) {
+            assertTrue(visited.contains(i));
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+
+}
@@ -0,0 +1,445 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.ForwardingNode;
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.Node;
+import it.unicam.cs.asdl2223.es10.ConcurrentCollisionListHashTable.Traverser;
+
+/**
+ * Insieme concorrente a liste di collisione. I bucket sono divisi in segmenti, ognuno con il
+ * proprio lock e la propria tabella: le modifiche prendono solo il lock del segmento interessato,
+ * le ricerche non prendono lock e leggono le teste delle liste e i collegamenti next come volatili.
+ *
+ * Ogni segmento si ridimensiona a blocchi, come ConcurrentCollisionListHashTable: chi supera la
+ * soglia crea la nuova tabella e sposta il primo blocco di TRANSFER_STRIDE bucket, e ogni scrittura
+ * successiva sul segmento ne sposta un altro prima di procedere. Un bucket spostato viene
+ * sostituito da un nodo di inoltro verso la nuova tabella, che i lettori seguono senza lock e
+ * che le scritture usano per trovare l'elemento. Lo spostamento di un blocco avviene con il lock
+ * del segmento, quindi una scrittura aspetta al più un blocco invece dell'intera copia; segmenti
+ * diversi si ridimensionano in parallelo. I nodi vengono copiati, non ricollegati: chi legge la
+ * vecchia tabella vede liste integre. Gli iteratori sono debolmente consistenti: non lanciano mai
+ * ConcurrentModificationException e vedono ogni elemento presente per tutta la durata
+ * dell'iterazione.
+ */
+public class StripedHashSet<E> implements Set<E> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int SEGMENT_INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    // bucket spostati da ogni scrittura durante un ridimensionamento
+    private static final int TRANSFER_STRIDE = 16;
+    private static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Object[].class);
+    private final Segment<E>[] segments;
+    // i bit alti dell'hash scelgono il segmento, la funzione primaria il bucket nel segmento
+    private final int segmentShift;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+
+    public StripedHashSet(PrimaryHashFunction phf) {
+        this(phf, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * concurrencyLevel è il numero atteso di thread che modificano l'insieme contemporaneamente;
+     * viene arrotondato alla potenza di due successiva.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public StripedHashSet(PrimaryHashFunction phf, int concurrencyLevel) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+        }
+        int count = 1;
+        int shift = 0;
+        while (count < concurrencyLevel && count < MAX_SEGMENTS) {
+            count <<= 1;
+            shift++;
+        }
+        this.segmentShift = 32 - shift;
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = new Murmur3HashMixer();
+        this.segments = (Segment<E>[]) new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(this.phf);
+        }
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    private Segment<E> segmentFor(int h) {
+        // con un solo segmento lo spostamento vale 32, che in Java equivale a 0
+        return segments.length == 1 ? segments[0] : segments[h >>> segmentShift];
+    }
+
+    @Override
+    public int size() {
+        long total = 0;
+        for (Segment<E> segment : segments) {
+            total += segment.count;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<E> segment : segments) {
+            if (segment.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(element);
+        return segmentFor(h).contains(element, h);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(e);
+        return segmentFor(h).add(e, h);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(o);
+        return segmentFor(h).remove(o, h);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        // la dimensione può cambiare durante la copia: si raccoglie in una lista
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        List<Object> elements = new ArrayList<>(size());
+        for (E element : this) {
+            elements.add(element);
+        }
+        return elements.toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : this) {
+            if (!c.contains(element) && remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Svuota un segmento alla volta: non è atomica rispetto agli inserimenti concorrenti.
+     */
+    @Override
+    public void clear() {
+        for (Segment<E> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int getConcurrencyLevel() {
+        return segments.length;
+    }
+
+    protected static final class Segment<E> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private final transient PrimaryHashFunction phf;
+
+        // i bucket già spostati contengono un nodo di inoltro; si leggono con getVolatile
+        protected transient volatile Object[] table;
+
+        // tabella in costruzione e bucket [0, transferIndex) ancora da spostare, letti con il lock
+        private transient Object[] nextTable;
+
+        private transient ForwardingNode<E> forwarding;
+
+        private int transferIndex;
+
+        protected volatile int count;
+
+        Segment(PrimaryHashFunction phf) {
+            this.phf = phf;
+            this.table = new Object[SEGMENT_INITIAL_CAPACITY];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> Node<E> bucket(Object[] t, int index) {
+            return (Node<E>) BUCKET.getVolatile(t, index);
+        }
+
+        boolean contains(Object element, int h) {
+            Object[] t = table;
+            while (true) {
+                Node<E> node = bucket(t, phf.hash(h, t.length));
+                if (node instanceof ForwardingNode) {
+                    t = ((ForwardingNode<E>) node).nextTable;
+                    continue;
+                }
+                for (; node != null; node = node.next) {
+                    if (node.hash == h && node.item.equals(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Tabella che contiene il bucket di h, da chiamare con il lock: se il bucket è già stato
+         * spostato è la nuova tabella, che durante un ridimensionamento non ha inoltri.
+         */
+        private Object[] tableFor(int h) {
+            Object[] t = table;
+            return bucket(t, phf.hash(h, t.length)) instanceof ForwardingNode ? nextTable : t;
+        }
+
+        boolean add(E e, int h) {
+            lock();
+            try {
+                helpTransfer();
+                Object[] t = tableFor(h);
+                int index = phf.hash(h, t.length);
+                Node<E> head = bucket(t, index);
+                for (Node<E> node = head; node != null; node = node.next) {
+                    if (node.hash == h && node.item.equals(e)) {
+                        return false;
+                    }
+                }
+                // il nodo è completo prima di essere pubblicato come nuova testa
+                BUCKET.setVolatile(t, index, new Node<>(e, h, head));
+                count = count + 1;
+                if (nextTable == null && count > table.length * LOAD_FACTOR) {
+                    startTransfer();
+                }
+                return true;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void startTransfer() {
+            Object[] t = table;
+            nextTable = new Object[t.length * 2];
+            forwarding = new ForwardingNode<>(nextTable);
+            transferIndex = t.length;
+            moveBlock();
+        }
+
+        // ogni scrittura durante un ridimensionamento sposta un blocco prima di procedere
+        private void helpTransfer() {
+            if (nextTable != null) {
+                moveBlock();
+            }
+        }
+
+        /**
+         * Copia nella nuova tabella il blocco di bucket più alto non ancora spostato, lasciando al
+         * suo posto i nodi di inoltro; dopo l'ultimo blocco pubblica la nuova tabella.
+         */
+        private void moveBlock() {
+            Object[] t = table;
+            Object[] nt = nextTable;
+            int end = transferIndex;
+            int start = Math.max(0, end - TRANSFER_STRIDE);
+            for (int i = end - 1; i >= start; i--) {
+                for (Node<E> node = bucket(t, i); node != null; node = node.next) {
+                    int index = phf.hash(node.hash, nt.length);
+                    BUCKET.setVolatile(nt, index, new Node<>(node.item, node.hash, bucket(nt, index)));
+                }
+                BUCKET.setVolatile(t, i, forwarding);
+            }
+            transferIndex = start;
+            if (start == 0) {
+                table = nt;
+                nextTable = null;
+                forwarding = null;
+            }
+        }
+
+        boolean isResizing() {
+            lock();
+            try {
+                return nextTable != null;
+            } finally {
+                unlock();
+            }
+        }
+
+        boolean remove(Object o, int h) {
+            lock();
+            try {
+                helpTransfer();
+                Object[] t = tableFor(h);
+                int index = phf.hash(h, t.length);
+                Node<E> prev = null;
+                for (Node<E> node = bucket(t, index); node != null; prev = node, node = node.next) {
+                    if (node.hash == h && node.item.equals(o)) {
+                        // il nodo tolto conserva next: un lettore fermo su di lui prosegue nella lista
+                        if (prev == null) {
+                            BUCKET.setVolatile(t, index, node.next);
+                        } else {
+                            prev.next = node.next;
+                        }
+                        count = count - 1;
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                table = new Object[SEGMENT_INITIAL_CAPACITY];
+                nextTable = null;
+                forwarding = null;
+                transferIndex = 0;
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Percorre i segmenti uno alla volta; dentro un segmento segue gli inoltri dei ridimensionamenti
+     * in corso senza aspettarli.
+     */
+    private class Itr implements Iterator<E> {
+        private int currentSegment;
+        private Traverser<E> traverser;
+        private Node<E> currentNode;
+        private E lastReturned;
+
+        private Itr() {
+            currentSegment = -1;
+            advance();
+        }
+
+        private void advance() {
+            currentNode = traverser == null ? null : traverser.advance();
+            while (currentNode == null && currentSegment + 1 < segments.length) {
+                traverser = new Traverser<>(segments[++currentSegment].table, phf);
+                currentNode = traverser.advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentNode != null;
+        }
+
+        @Override
+        public E next() {
+            if (currentNode == null) {
+                throw new NoSuchElementException("No more elements");
+            }
+            lastReturned = currentNode.item;
+            advance();
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            StripedHashSet.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    protected Segment<E>[] getSegments() {
+        return this.segments;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
@@ -0,0 +1,141 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class StripedHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new StripedHashSet<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new StripedHashSet<>(multiplicationHash, 1));
+    }
+
+    private void addContainsRemove(StripedHashSet<Integer> set) {
+        Set<Integer> expected = RandomSetOperations.check(set, 19, 50000, 4000);
+        RandomSetOperations.assertIteratesOnce(expected, set);
+    }
+
+    @Test
+    void divisionHash_testConcurrencyLevelIsRoundedUp() {
+        assertEquals(8, new StripedHashSet<>(divisionHash, 5).getConcurrencyLevel());
+        assertThrows(IllegalArgumentException.class, () -> new StripedHashSet<>(divisionHash, 0));
+    }
+
+    @Test
+    void divisionHash_testConcurrentAddsAreNotLost() throws InterruptedException {
+        StripedHashSet<Integer> set = new StripedHashSet<>(divisionHash, 4);
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            int first = t;
+            // i thread inseriscono chiavi in parte sovrapposte, e ognuno rilegge le proprie
+            workers[t] = new Thread(() -> {
+                for (int i = first * 10000; i < first * 10000 + 20000; i++) {
+                    set.add(i);
+                    assertTrue(set.contains(i));
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(50000, set.size());
+        for (int i = 0; i < 50000; i++) {
+            assertTrue(set.contains(i));
+        }
+    }
+
+    @Test
+    void multiplicationHash_testIteratorIsWeaklyConsistent() {
+        StripedHashSet<Integer> set = new StripedHashSet<>(multiplicationHash, 2);
+        for (int i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        Iterator<Integer> it = set.iterator();
+        // le modifiche durante l'iterazione non lanciano eccezioni, anche se provocano un
+        // ridimensionamento; gli elementi mai toccati vengono comunque visitati
+        for (int i = 100; i < 1000; i++) {
+            set.add(i);
+            set.remove(i - 100 + 50);
+            if (it.hasNext()) {
+                visited.add(it.next());
+            }
+        }
+        while (it.hasNext()) {
+            visited.add(it.next());
+        }
+        for (int i = 0; i < 50; i++) {
+            assertTrue(visited.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testResizeIsSharedByLaterWrites() {
+        StripedHashSet<Integer> set = new StripedHashSet<>(divisionHash, 1);
+        StripedHashSet.Segment<Integer> segment = set.getSegments()[0];
+        int n = 0;
+        while (!segment.isResizing() || segment.table.length < 64) {
+            set.add(n++);
+        }
+        // chi ha superato la soglia ha spostato un solo blocco da 16 bucket
+        int length = segment.table.length;
+        for (int i = 0; i < n; i++) {
+            assertTrue(set.contains(i));
+        }
+        Set<Integer> visited = new HashSet<>();
+        for (Integer i : set) {
+            assertTrue(visited.add(i));
+        }
+        assertEquals(n, visited.size());
+        assertFalse(set.add(n - 1));
+        int writes = 1;
+        while (segment.isResizing()) {
+            assertFalse(set.remove(-1));
+            writes++;
+        }
+        assertEquals(length / 16 - 1, writes);
+        assertEquals(2 * length, segment.table.length);
+        assertEquals(n, set.size());
+        for (int i = 0; i < n; i++) {
+            assertTrue(set.contains(i));
+        }
+    }
+
+    @Test
+    void divisionHash_testRetainAllAcrossSegments() {
+        StripedHashSet<Integer> set = new StripedHashSet<>(divisionHash, 8);
+        Set<Integer> multiplesOfThree = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i);
+            if (i % 3 == 0) {
+                multiplesOfThree.add(i);
+            }
+        }
+        // ogni segmento rimuove i propri elementi sotto il proprio lock
+        assertTrue(set.retainAll(multiplesOfThree));
+        assertEquals(multiplesOfThree.size(), set.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 3 == 0, set.contains(i));
+        }
+        assertEquals(multiplesOfThree, new HashSet<>(Arrays.asList(set.toArray(new Integer[0]))));
+    }
+
+}
@@ -0,0 +1,395 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Tabella a indirizzamento aperto in stile Swiss table. Accanto a ogni cella c'è un byte di
+ * controllo con i 7 bit bassi dell'hash (cella piena), oppure EMPTY o DELETED. Le celle sono
+ * divise in gruppi da 8: i byte di controllo di un gruppo vengono letti come un solo long e
+ * confrontati tutti insieme con operazioni bit a bit (SWAR), così quasi tutte le ricerche si
+ * risolvono con un confronto per gruppo prima di qualsiasi chiamata a equals.
+ *
+ * Il gruppo iniziale è scelto dalla funzione primaria; i gruppi successivi seguono una sequenza
+ * triangolare, che con un numero di gruppi potenza di due li visita tutti.
+ */
+public class SwissHashTable<E> implements Set<E> {
+    private static final int GROUP_WIDTH = 8;
+    private static final int INITIAL_GROUPS = 2;
+    private static final double DEFAULT_LOAD_FACTOR = 0.875;
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+    private static final VarHandle GROUP = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private final double loadFactor;
+    private int size;
+    // celle piene o DELETED: determinano quando ricostruire la tabella
+    private int used;
+    private byte[] ctrl;
+    private Object[] slots;
+    private final PrimaryHashFunction phf;
+    private final HashMixer mixer;
+    private int modCount;
+
+    private int getCurrentCapacity() {
+        return this.slots.length;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * loadFactor);
+    }
+
+    public SwissHashTable(PrimaryHashFunction phf) {
+        this(phf, DEFAULT_LOAD_FACTOR);
+    }
+
+    public SwissHashTable(PrimaryHashFunction phf, double loadFactor) {
+        if (phf == null) {
+            throw new NullPointerException("Primary hash function cannot be null");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+        this.phf = phf instanceof SeededPrimaryHashFunction ? ((SeededPrimaryHashFunction) phf).reseed() : phf;
+        this.mixer = new Murmur3HashMixer();
+        this.loadFactor = loadFactor;
+        allocate(INITIAL_GROUPS);
+        this.modCount = 0;
+    }
+
+    private void allocate(int groups) {
+        this.ctrl = new byte[groups * GROUP_WIDTH];
+        Arrays.fill(ctrl, EMPTY);
+        this.slots = new Object[groups * GROUP_WIDTH];
+        this.size = 0;
+        this.used = 0;
+    }
+
+    private int hash(Object element) {
+        return mixer.mix(element.hashCode());
+    }
+
+    // i 25 bit alti scelgono il gruppo, i 7 bassi finiscono nel byte di controllo
+    private int firstGroup(int h, int groups) {
+        return phf.hash(h >>> 7, groups);
+    }
+
+    private static byte h2(int h) {
+        return (byte) (h & 0x7F);
+    }
+
+    private long group(int offset) {
+        return (long) GROUP.get(ctrl, offset);
+    }
+
+    /**
+     * Bit alti dei byte uguali a b. Un prestito può segnalare in più il byte che segue una
+     * corrispondenza vera: i candidati vengono comunque verificati con equals.
+     */
+    private static long match(long group, byte b) {
+        long x = group ^ (LSB * (b & 0xFF));
+        return (x - LSB) & ~x & MSB;
+    }
+
+    // EMPTY è l'unico valore con il bit 7 acceso e il bit 1 spento
+    private static long matchEmpty(long group) {
+        return group & ~(group << 6) & MSB;
+    }
+
+    private static long matchEmptyOrDeleted(long group) {
+        return group & MSB;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(Object element, int h) {
+        int groups = slots.length / GROUP_WIDTH;
+        int g = firstGroup(h, groups);
+        byte tag = h2(h);
+        for (int i = 0; i < groups; i++) {
+            int offset = g * GROUP_WIDTH;
+            long group = group(offset);
+            for (long bits = match(group, tag); bits != 0; bits &= bits - 1) {
+                int index = offset + (Long.numberOfTrailingZeros(bits) >>> 3);
+                if (slots[index] != null && slots[index].equals(element)) {
+                    return index;
+                }
+            }
+            if (matchEmpty(group) != 0) {
+                return -1;
+            }
+            g = (g + i + 1) & (groups - 1);
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return indexOf(element, hash(element)) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (int s = 0; s < ctrl.length; s++) {
+            if (ctrl[s] >= 0) {
+                result[i++] = slots[s];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (int s = 0; s < ctrl.length; s++) {
+            if (ctrl[s] >= 0) {
+                a[i++] = (T) slots[s];
+            }
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int h = hash(e);
+        if (indexOf(e, h) >= 0) {
+            return false;
+        }
+        int index = findInsertSlot(h);
+        if (ctrl[index] == EMPTY) {
+            if (used + 1 > getCurrentThreshold()) {
+                rehash();
+                index = findInsertSlot(h);
+            }
+            used++;
+        }
+        ctrl[index] = h2(h);
+        slots[index] = e;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    // prima cella EMPTY o DELETED lungo la sequenza dei gruppi
+    private int findInsertSlot(int h) {
+        int groups = slots.length / GROUP_WIDTH;
+        int g = firstGroup(h, groups);
+        for (int i = 0; i < groups; i++) {
+            int offset = g * GROUP_WIDTH;
+            long bits = matchEmptyOrDeleted(group(offset));
+            if (bits != 0) {
+                return offset + (Long.numberOfTrailingZeros(bits) >>> 3);
+            }
+            g = (g + i + 1) & (groups - 1);
+        }
+        throw new IllegalStateException("Table is full");
+    }
+
+    /**
+     * Raddoppia la tabella, oppure la ricostruisce alla stessa dimensione quando la maggior parte
+     * delle celle usate sono DELETED.
+     */
+    private void rehash() {
+        byte[] oldCtrl = ctrl;
+        Object[] oldSlots = slots;
+        int oldSize = size;
+        int groups = oldSlots.length / GROUP_WIDTH;
+        if (size + 1 > getCurrentThreshold() / 2) {
+            groups *= 2;
+        }
+        allocate(groups);
+        for (int s = 0; s < oldCtrl.length; s++) {
+            if (oldCtrl[s] >= 0) {
+                int h = hash(oldSlots[s]);
+                int index = findInsertSlot(h);
+                ctrl[index] = oldCtrl[s];
+                slots[index] = oldSlots[s];
+            }
+        }
+        size = oldSize;
+        used = oldSize;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        int index = indexOf(o, hash(o));
+        if (index < 0) {
+            return false;
+        }
+        deleteAt(index);
+        size--;
+        modCount++;
+        return true;
+    }
+
+    private void deleteAt(int index) {
+        // un gruppo che contiene ancora una cella EMPTY non è mai stato pieno: nessuna ricerca lo
+        // ha attraversato, quindi la cella può tornare EMPTY invece che DELETED
+        int offset = index - index % GROUP_WIDTH;
+        if (matchEmpty(group(offset)) != 0) {
+            ctrl[index] = EMPTY;
+            used--;
+        } else {
+            ctrl[index] = DELETED;
+        }
+        slots[index] = null;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        for (Object element : c) {
+            if (!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (E element : c) {
+            if (add(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        boolean modified = false;
+        for (int s = 0; s < ctrl.length; s++) {
+            if (ctrl[s] >= 0 && !c.contains(slots[s])) {
+                deleteAt(s);
+                size--;
+                modified = true;
+            }
+        }
+        if (modified) {
+            modCount++;
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        for (Object element : c) {
+            if (element == null) {
+                throw new NullPointerException("Collection cannot contain null elements");
+            }
+        }
+        boolean modified = false;
+        for (Object element : c) {
+            if (remove(element)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        allocate(INITIAL_GROUPS);
+        this.modCount++;
+    }
+
+    public double getLoadFactor() {
+        return this.loadFactor;
+    }
+
+    private class Itr implements Iterator<E> {
+        private int numeroModificheAtteso;
+        private int currentIndex;
+
+        private Itr() {
+            numeroModificheAtteso = modCount;
+            currentIndex = findNextIndex(0);
+        }
+
+        private int findNextIndex(int from) {
+            while (from < ctrl.length && ctrl[from] < 0) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < ctrl.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != numeroModificheAtteso) {
+                throw new ConcurrentModificationException("Iterator modified inconsistently");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements");
+            }
+            E item = (E) slots[currentIndex];
+            currentIndex = findNextIndex(currentIndex + 1);
+            return item;
+        }
+    }
+
+    protected byte[] getCtrl() {
+        return this.ctrl;
+    }
+
+    protected Object[] getSlots() {
+        return this.slots;
+    }
+
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
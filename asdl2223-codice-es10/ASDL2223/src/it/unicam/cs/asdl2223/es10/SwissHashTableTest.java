@@ -0,0 +1,91 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SwissHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        addContainsRemove(new SwissHashTable<>(divisionHash));
+    }
+
+    @Test
+    void multiplicationHash_testAddContainsRemove() {
+        addContainsRemove(new SwissHashTable<>(multiplicationHash, 0.5));
+    }
+
+    private void addContainsRemove(SwissHashTable<Integer> table) {
+        // abbastanza operazioni da riempire la tabella di tombstone più volte
+        Set<Integer> expected = RandomSetOperations.check(table, 23, 100000, 5000);
+        assertEquals(expected, new HashSet<>(Arrays.asList(table.toArray())));
+    }
+
+    @Test
+    void divisionHash_testReuseDeletedSlots() {
+        SwissHashTable<Integer> table = new SwissHashTable<>(divisionHash);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+            table.remove(i);
+        }
+        assertTrue(table.isEmpty());
+        assertEquals(16, table.getCtrl().length);
+    }
+
+    @Test
+    void divisionHash_testControlBytesHoldHashTags() {
+        SwissHashTable<Integer> table = new SwissHashTable<>(divisionHash);
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+        int full = 0;
+        for (byte b : table.getCtrl()) {
+            if (b >= 0) {
+                full++;
+            }
+        }
+        assertEquals(100, full);
+        assertTrue(table.getCtrl().length * table.getLoadFactor() >= 100);
+    }
+
+    @Test
+    void divisionHash_testLoadFactorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new SwissHashTable<Integer>(divisionHash, 1);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testRetainAll() {
+        SwissHashTable<Integer> table = new SwissHashTable<>(multiplicationHash);
+        table.addAll(Arrays.asList(12, 42, 5, 32, 777, 11));
+        assertTrue(table.retainAll(Arrays.asList(42, 5, -1)));
+        assertEquals(2, table.size());
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(12));
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        SwissHashTable<Integer> table = new SwissHashTable<>(divisionHash);
+        table.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+}
@@ -0,0 +1,59 @@
+package it.unicam.cs.asdl2223.es10;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * Famiglia universale di Carter e Wegman: h(k) = ((a * k + b) mod p) mod m, con p = 2^61 - 1 e
+ * a, b scelti a caso per ogni istanza. Con un seme esplicito anche le funzioni ottenute da reseed
+ * sono riproducibili: la sequenza di semi derivati dipende solo da quello iniziale.
+ */
+public class UniversalPrimaryHashFunction implements SeededPrimaryHashFunction {
+
+    private static final long P = (1L << 61) - 1;
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    private final long a;
+
+    private final long b;
+
+    // fornisce i semi delle funzioni restituite da reseed
+    private final SplittableRandom seeds;
+
+    public UniversalPrimaryHashFunction() {
+        this(SEEDS.nextLong());
+    }
+
+    public UniversalPrimaryHashFunction(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.a = 1 + random.nextLong(P - 1);
+        this.b = random.nextLong(P);
+        this.seeds = random.split();
+    }
+
+    @Override
+    public int hash(int key, int m) {
+        long k = key & 0xFFFFFFFFL;
+        long lo = a * k;
+        long hi = Math.multiplyHigh(a, k);
+        // riduzione modulo 2^61 - 1 del prodotto a 122 bit
+        long x = (lo & P) + (lo >>> 61) + (hi << 3);
+        x = (x & P) + (x >>> 61);
+        x += b;
+        x = (x & P) + (x >>> 61);
+        if (x >= P) {
+            x -= P;
+        }
+        return (int) (x % m);
+    }
+
+    @Override
+    public SeededPrimaryHashFunction reseed() {
+        // SplittableRandom non è thread-safe, e la stessa istanza può essere condivisa fra tabelle
+        synchronized (seeds) {
+            return new UniversalPrimaryHashFunction(seeds.nextLong());
+        }
+    }
+
+}
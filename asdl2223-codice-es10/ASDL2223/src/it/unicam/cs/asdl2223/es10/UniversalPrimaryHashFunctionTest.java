@@ -0,0 +1,86 @@
+package it.unicam.cs.asdl2223.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class UniversalPrimaryHashFunctionTest {
+
+    @Test
+    void testHashInRange() {
+        UniversalPrimaryHashFunction phf = new UniversalPrimaryHashFunction();
+        int[] keys = { 0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE };
+        for (int m : new int[] { 1, 16, 17, 1 << 20, Integer.MAX_VALUE }) {
+            for (int key : keys) {
+                int h = phf.hash(key, m);
+                assertTrue(h >= 0 && h < m);
+            }
+        }
+    }
+
+    @Test
+    void testSameSeedSameFunction() {
+        UniversalPrimaryHashFunction phf1 = new UniversalPrimaryHashFunction(1234);
+        UniversalPrimaryHashFunction phf2 = new UniversalPrimaryHashFunction(1234);
+        for (int key = -1000; key < 1000; key++) {
+            assertEquals(phf1.hash(key, 1024), phf2.hash(key, 1024));
+        }
+    }
+
+    @Test
+    void testReseedChangesFunction() {
+        SeededPrimaryHashFunction phf = new UniversalPrimaryHashFunction(1234);
+        SeededPrimaryHashFunction other = phf.reseed();
+        int differences = 0;
+        for (int key = 0; key < 1000; key++) {
+            if (phf.hash(key, 1 << 16) != other.hash(key, 1 << 16)) {
+                differences++;
+            }
+        }
+        assertTrue(differences > 900);
+    }
+
+    @Test
+    void testKeysSpreadEvenly() {
+        UniversalPrimaryHashFunction phf = new UniversalPrimaryHashFunction(99);
+        int m = 64;
+        int[] counts = new int[m];
+        for (int key = 0; key < m * 1000; key += 1) {
+            counts[phf.hash(key * m, m)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200);
+        }
+    }
+
+    @Test
+    void testReseedIsReproducible() {
+        SeededPrimaryHashFunction phf1 = new UniversalPrimaryHashFunction(1234);
+        SeededPrimaryHashFunction phf2 = new UniversalPrimaryHashFunction(1234);
+        for (int i = 0; i < 3; i++) {
+            phf1 = phf1.reseed();
+            phf2 = phf2.reseed();
+            for (int key = -1000; key < 1000; key++) {
+                assertEquals(phf1.hash(key, 1024), phf2.hash(key, 1024));
+            }
+        }
+    }
+
+    @Test
+    void testTablesWithTheSameSeedHaveTheSameLayout() {
+        CollisionListResizableHashTable<Integer> table1 = new CollisionListResizableHashTable<>(
+                new UniversalPrimaryHashFunction(42), h -> h);
+        CollisionListResizableHashTable<Integer> table2 = new CollisionListResizableHashTable<>(
+                new UniversalPrimaryHashFunction(42), h -> h);
+        for (int i = 0; i < 1000; i++) {
+            table1.add(i * 31);
+            table2.add(i * 31);
+        }
+        Object[] buckets1 = table1.getTable();
+        Object[] buckets2 = table2.getTable();
+        for (int i = 0; i < buckets1.length; i++) {
+            assertEquals(buckets1[i] == null, buckets2[i] == null);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package it.unicam.cs.asdl2223.es10;
+
+public class XXHashMixer implements HashMixer {
+
+    private static final int PRIME32_2 = 0x85EBCA77;
+
+    private static final int PRIME32_3 = 0xC2B2AE3D;
+
+    @Override
+    public int mix(int h) {
+        // passo finale (avalanche) di XXH32
+        h ^= h >>> 15;
+        h *= PRIME32_2;
+        h ^= h >>> 13;
+        h *= PRIME32_3;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}